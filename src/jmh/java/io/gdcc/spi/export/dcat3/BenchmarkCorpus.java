@@ -0,0 +1,153 @@
+package io.gdcc.spi.export.dcat3;
+
+import static io.gdcc.spi.export.util.TestUtil.getExportDataProvider;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import io.gdcc.spi.export.ExportDataProvider;
+import io.gdcc.spi.export.dcat3.config.loader.RootConfigLoader;
+import io.gdcc.spi.export.util.SyntheticExportDataProvider;
+import jakarta.json.Json;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/**
+ * Inputs shared by the benchmarks, selected by name:
+ *
+ * <ul>
+ *   <li>{@code ap-nl30}: the AP-NL 3.0 test fixture
+ *   <li>{@code logged-1}, {@code logged-2}: the ExportData dumps in {@code logged_real_input}
+ *   <li>{@code synthetic-<n>}: a {@link SyntheticExportDataProvider} dataset with n files
+ * </ul>
+ *
+ * <p>All corpora are mapped with the AP-NL 3.0 configuration and are held in memory, so file
+ * reading is not part of any measurement. Paths are relative to the project directory.
+ */
+final class BenchmarkCorpus {
+    static final String CONFIG = "src/test/resources/input/config_AP_NL30/dcat-root.properties";
+    static final String AP_NL30 = "src/test/resources/input/export_data_source_AP_NL30";
+    static final String LOGGED = "src/test/resources/logged_real_input/ExportData_%s.json";
+    static final String SYNTHETIC = "synthetic-";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final XmlMapper XML_MAPPER = new XmlMapper();
+
+    private BenchmarkCorpus() {}
+
+    /** Point the exporter at the benchmark configuration. */
+    static void useConfig() {
+        System.setProperty(RootConfigLoader.SYS_PROP, Path.of(CONFIG).toAbsolutePath().toString());
+    }
+
+    static ExportDataProvider provider(String corpus) {
+        if (corpus.equals("ap-nl30")) {
+            return inMemory(getExportDataProvider(AP_NL30));
+        }
+        if (corpus.startsWith("logged-")) {
+            return logged(String.format(LOGGED, corpus.substring("logged-".length())));
+        }
+        if (corpus.startsWith(SYNTHETIC)) {
+            int files = Integer.parseInt(corpus.substring(SYNTHETIC.length()));
+            return SyntheticExportDataProvider.builder().files(files).build();
+        }
+        throw new IllegalArgumentException("Unknown corpus: " + corpus);
+    }
+
+    /** The in-memory ExportData for a corpus. */
+    static ExportData exportData(String corpus) {
+        return ExportData.builder().provider(provider(corpus)).build();
+    }
+
+    private static InMemoryProvider inMemory(ExportDataProvider provider) {
+        return new InMemoryProvider(
+                provider.getDatasetJson(),
+                provider.getDatasetORE(),
+                provider.getDatasetFileDetails(),
+                provider.getDatasetSchemaDotOrg(),
+                provider.getDataCiteXml());
+    }
+
+    /**
+     * A provider for a logged ExportData dump. The dump holds DataCite already converted to JSON;
+     * it is written back as XML for the builder (the element/attribute distinction is lost, which
+     * does not matter for timing).
+     */
+    private static InMemoryProvider logged(String file) {
+        try {
+            JsonNode dump = MAPPER.readTree(Path.of(file).toFile());
+            JsonNode dataCite = dump.get("dataCiteXml");
+            return new InMemoryProvider(
+                    jsonObject(dump.get("datasetJson")),
+                    jsonObject(dump.get("datasetORE")),
+                    jsonArray(dump.get("datasetFileDetails")),
+                    jsonObject(dump.get("datasetSchemaDotOrg")),
+                    dataCite == null || dataCite.isNull()
+                            ? null
+                            : XML_MAPPER
+                                    .writer()
+                                    .withRootName("resource")
+                                    .writeValueAsString(dataCite));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static JsonObject jsonObject(JsonNode node) {
+        if (node == null || node.isNull()) {
+            return null;
+        }
+        try (JsonReader reader = Json.createReader(new StringReader(node.toString()))) {
+            return reader.readObject();
+        }
+    }
+
+    private static JsonArray jsonArray(JsonNode node) {
+        if (node == null || node.isNull()) {
+            return null;
+        }
+        try (JsonReader reader = Json.createReader(new StringReader(node.toString()))) {
+            return reader.readArray();
+        }
+    }
+
+    /** Provider returning the same, already parsed sources on every call. */
+    record InMemoryProvider(
+            JsonObject datasetJson,
+            JsonObject datasetORE,
+            JsonArray datasetFileDetails,
+            JsonObject datasetSchemaDotOrg,
+            String dataCiteXml)
+            implements ExportDataProvider {
+
+        @Override
+        public JsonObject getDatasetJson() {
+            return datasetJson;
+        }
+
+        @Override
+        public JsonObject getDatasetORE() {
+            return datasetORE;
+        }
+
+        @Override
+        public JsonArray getDatasetFileDetails() {
+            return datasetFileDetails;
+        }
+
+        @Override
+        public JsonObject getDatasetSchemaDotOrg() {
+            return datasetSchemaDotOrg;
+        }
+
+        @Override
+        public String getDataCiteXml() {
+            return dataCiteXml;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package io.gdcc.spi.export.dcat3;
+
+import io.gdcc.spi.export.ExportDataProvider;
+import io.gdcc.spi.export.ExportException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** The full {@code exportDataset} call, per output format. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+// measure the build, not the model cache
+@Fork(value = 1, jvmArgsAppend = "-Ddataverse.dcat3.model.cache.triples=0")
+public class ExportBenchmark {
+
+    @Param({"turtle", "jsonld", "rdfxml", "ntriples", "nquads"})
+    public String format;
+
+    @Param({"ap-nl30", "logged-1", "logged-2", "synthetic-1", "synthetic-100", "synthetic-10000"})
+    public String corpus;
+
+    private Dcat3ExporterBase exporter;
+    private ExportDataProvider provider;
+
+    @Setup
+    public void setUp() {
+        BenchmarkCorpus.useConfig();
+        exporter =
+                switch (format) {
+                    case "turtle" -> new Dcat3ExporterTurtle();
+                    case "jsonld" -> new Dcat3ExporterJsonLd();
+                    case "rdfxml" -> new Dcat3ExporterRdfXml();
+                    case "ntriples" -> new Dcat3ExporterNTriples();
+                    case "nquads" -> new Dcat3ExporterNQuads();
+                    default -> throw new IllegalArgumentException("Unknown format: " + format);
+                };
+        provider = BenchmarkCorpus.provider(corpus);
+    }
+
+    @Benchmark
+    public void export() throws ExportException {
+        exporter.exportDataset(provider, OutputStream.nullOutputStream());
+    }
+}
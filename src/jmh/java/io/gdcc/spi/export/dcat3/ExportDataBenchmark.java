@@ -0,0 +1,40 @@
+package io.gdcc.spi.export.dcat3;
+
+import io.gdcc.spi.export.ExportDataProvider;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Conversion of the provider sources into {@link ExportData}. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExportDataBenchmark {
+
+    @Param({"ap-nl30", "logged-1", "logged-2", "synthetic-1", "synthetic-100", "synthetic-10000"})
+    public String corpus;
+
+    private ExportDataProvider provider;
+
+    @Setup
+    public void setUp() {
+        provider = BenchmarkCorpus.provider(corpus);
+    }
+
+    @Benchmark
+    public ExportData build() {
+        return ExportData.builder().provider(provider).build();
+    }
+}
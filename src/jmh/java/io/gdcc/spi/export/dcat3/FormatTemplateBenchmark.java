@@ -0,0 +1,77 @@
+package io.gdcc.spi.export.dcat3;
+
+import io.gdcc.spi.export.dcat3.mapping.FormatTemplate;
+import io.gdcc.spi.export.dcat3.mapping.JaywayJsonFinder;
+import io.gdcc.spi.export.dcat3.mapping.ResourceMapper;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.jena.rdf.model.Model;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Formatting values with a precompiled template. Run with {@code -prof gc} to compare the
+ * allocation rate of a fresh builder per value with a reused one, and of the distribution element
+ * that formats an IRI per file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormatTemplateBenchmark {
+    private static final String FORMAT = "http://localhost:8080/api/access/datafile/${value}";
+
+    @Param({"synthetic-1000"})
+    public String corpus;
+
+    private FormatTemplate template;
+    private JaywayJsonFinder finder;
+    private ResourceMapper distribution;
+    private final StringBuilder buffer = new StringBuilder();
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        BenchmarkCorpus.useConfig();
+        template = FormatTemplate.compile(FORMAT, List.of());
+        finder = new JaywayJsonFinder(BenchmarkCorpus.exportData(corpus).toJsonNode());
+        distribution =
+                Dcat3ExporterBase.prepared().elements().stream()
+                        .filter(e -> e.element().id().equals("distribution"))
+                        .findFirst()
+                        .orElseThrow()
+                        .mapper();
+    }
+
+    private String value() {
+        return Integer.toString(1000 + (next++ & 1023));
+    }
+
+    @Benchmark
+    public String render() {
+        return template.render(value(), null, finder);
+    }
+
+    @Benchmark
+    public String renderToReusedBuilder() {
+        return template.renderTo(buffer, value(), null, finder).toString();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Model distribution() {
+        return distribution.build(finder);
+    }
+}
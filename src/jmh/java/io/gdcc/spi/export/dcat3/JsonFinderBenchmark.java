@@ -0,0 +1,64 @@
+package io.gdcc.spi.export.dcat3;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.gdcc.spi.export.dcat3.mapping.JaywayJsonFinder;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** JSONPath evaluation as done by the mappers: values, scope nodes and scoped lookups. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonFinderBenchmark {
+    private static final String TITLE =
+            "$.datasetJson.datasetVersion.metadataBlocks.citation.fields"
+                    + "[?(@.typeName=='title')].value";
+    private static final String FILES = "$.datasetFileDetails[*]";
+
+    @Param({"ap-nl30", "logged-1", "synthetic-100", "synthetic-10000"})
+    public String corpus;
+
+    private JaywayJsonFinder finder;
+    private List<JsonNode> files;
+
+    @Setup
+    public void setUp() {
+        finder = new JaywayJsonFinder(BenchmarkCorpus.exportData(corpus).toJsonNode());
+        files = finder.nodes(FILES);
+    }
+
+    @Benchmark
+    public List<String> list() {
+        return finder.list(TITLE);
+    }
+
+    @Benchmark
+    public List<JsonNode> nodes() {
+        return finder.nodes(FILES);
+    }
+
+    /** Scope to every file and read a value from it and from the root. */
+    @Benchmark
+    public void at(Blackhole blackhole) {
+        for (JsonNode file : files) {
+            JaywayJsonFinder scoped = finder.at(file);
+            blackhole.consume(scoped.list("$.id"));
+            blackhole.consume(scoped.listRoot("$.datasetJson.datasetVersion.license.uri"));
+        }
+    }
+}
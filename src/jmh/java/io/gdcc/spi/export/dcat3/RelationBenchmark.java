@@ -0,0 +1,67 @@
+package io.gdcc.spi.export.dcat3;
+
+import io.gdcc.spi.export.dcat3.config.model.Relation;
+import io.gdcc.spi.export.dcat3.mapping.ElementSubjects;
+import io.gdcc.spi.export.dcat3.mapping.JaywayJsonFinder;
+import io.gdcc.spi.export.dcat3.mapping.Prefixes;
+import io.gdcc.spi.export.dcat3.mapping.TripleBuffer;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Applying the root relations to the subjects of already mapped elements. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RelationBenchmark {
+
+    @Param({"ap-nl30", "synthetic-100", "synthetic-10000"})
+    public String corpus;
+
+    private List<Relation> relations;
+    private Map<String, ElementSubjects> subjects;
+    private Prefixes prefixes;
+
+    @Setup
+    public void setUp() throws IOException {
+        BenchmarkCorpus.useConfig();
+        PreparedConfig config = Dcat3ExporterBase.prepared();
+        JaywayJsonFinder finder =
+                new JaywayJsonFinder(BenchmarkCorpus.exportData(corpus).toJsonNode());
+        subjects = new LinkedHashMap<>();
+        for (PreparedConfig.PreparedElement element : config.elements()) {
+            ElementSubjects elementSubjects = element.newSubjects();
+            element.mapper().emit(finder, new TripleBuffer(), Integer.MAX_VALUE, elementSubjects);
+            subjects.put(element.element().id(), elementSubjects);
+        }
+        relations = config.root().relations();
+        prefixes = config.prefixes();
+    }
+
+    @Benchmark
+    public Model apply() {
+        Model model = ModelFactory.createDefaultModel();
+        Dcat3ExporterBase.applyRelations(
+                StreamRDFLib.graph(model.getGraph()), relations, subjects, prefixes);
+        return model;
+    }
+}
@@ -0,0 +1,61 @@
+package io.gdcc.spi.export.dcat3;
+
+import io.gdcc.spi.export.dcat3.mapping.JaywayJsonFinder;
+import io.gdcc.spi.export.dcat3.mapping.ResourceMapper;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.apache.jena.rdf.model.Model;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Building the model of a single configured element. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResourceMapperBenchmark {
+
+    @Param({"catalog", "dataset", "distribution", "dataservice"})
+    public String element;
+
+    @Param({"ap-nl30", "logged-1", "synthetic-100", "synthetic-10000"})
+    public String corpus;
+
+    /** Scope nodes from which the element is mapped in parallel; 0 maps sequentially. */
+    @Param({"0", "1000"})
+    public int parallelThreshold;
+
+    private ResourceMapper mapper;
+    private JaywayJsonFinder finder;
+
+    @Setup
+    public void setUp() throws IOException {
+        BenchmarkCorpus.useConfig();
+        mapper =
+                Dcat3ExporterBase.prepared().elements().stream()
+                        .filter(e -> e.element().id().equals(element))
+                        .findFirst()
+                        .orElseThrow(
+                                () -> new IllegalArgumentException("Unknown element: " + element))
+                        .mapper();
+        finder = new JaywayJsonFinder(BenchmarkCorpus.exportData(corpus).toJsonNode());
+    }
+
+    @Benchmark
+    public Model build() {
+        return parallelThreshold > 0
+                ? mapper.build(finder, parallelThreshold)
+                : mapper.build(finder);
+    }
+}
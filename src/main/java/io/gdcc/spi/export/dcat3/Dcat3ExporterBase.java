@@ -3,42 +3,54 @@
 // Refactor: Split DCAT3 exporter into base + format-specific subclasses.
 package io.gdcc.spi.export.dcat3;
 
-import static io.gdcc.spi.export.dcat3.config.loader.FileResolver.resolveElementFile;
-
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.gdcc.spi.export.ExportDataProvider;
 import io.gdcc.spi.export.ExportException;
 import io.gdcc.spi.export.Exporter;
-import io.gdcc.spi.export.dcat3.config.loader.ResourceConfigLoader;
-import io.gdcc.spi.export.dcat3.config.loader.RootConfigLoader;
-import io.gdcc.spi.export.dcat3.config.model.Element;
+import io.gdcc.spi.export.dcat3.config.loader.ConfigCache;
 import io.gdcc.spi.export.dcat3.config.model.Relation;
-import io.gdcc.spi.export.dcat3.config.model.ResourceConfig;
 import io.gdcc.spi.export.dcat3.config.model.RootConfig;
-import io.gdcc.spi.export.dcat3.config.validate.Severity;
-import io.gdcc.spi.export.dcat3.config.validate.ValidationMessage;
-import io.gdcc.spi.export.dcat3.config.validate.ValidationReport;
-import io.gdcc.spi.export.dcat3.config.validate.Validators;
+import io.gdcc.spi.export.dcat3.fragment.FragmentKey;
+import io.gdcc.spi.export.dcat3.fragment.FragmentStore;
+import io.gdcc.spi.export.dcat3.mapping.BuildExecutor;
+import io.gdcc.spi.export.dcat3.mapping.ElementSubjects;
 import io.gdcc.spi.export.dcat3.mapping.JaywayJsonFinder;
+import io.gdcc.spi.export.dcat3.mapping.JsonPathCache;
 import io.gdcc.spi.export.dcat3.mapping.Prefixes;
-import io.gdcc.spi.export.dcat3.mapping.ResourceMapper;
+import io.gdcc.spi.export.dcat3.mapping.TripleBuffer;
+import io.gdcc.spi.export.dcat3.metrics.CountingOutputStream;
+import io.gdcc.spi.export.dcat3.metrics.ExportMetrics;
+import io.gdcc.spi.export.dcat3.metrics.ExportMetrics.Phase;
+import io.gdcc.spi.export.dcat3.trace.ElementTrace;
+import io.gdcc.spi.export.dcat3.trace.ExportTrace;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.logging.Level;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.logging.Logger;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
-import org.apache.jena.rdf.model.Property;
-import org.apache.jena.rdf.model.ResIterator;
-import org.apache.jena.rdf.model.Resource;
-import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFLib;
+import org.apache.jena.riot.system.StreamRDFWrapper;
+import org.apache.jena.riot.system.StreamRDFWriter;
 
 /**
  * Abstract base class for DCAT3 exporters.
@@ -50,12 +62,37 @@ public abstract class Dcat3ExporterBase implements Exporter {
     private static final Logger logger =
             Logger.getLogger(Dcat3ExporterBase.class.getCanonicalName());
 
-    protected RootConfig root;
+    /** System property with the number of threads for {@code dcat.build.parallel}. */
+    public static final String BUILD_THREADS_PROP = BuildExecutor.THREADS_PROP;
+
+    /** Parsed configuration files, shared by all exporter formats. */
+    private static final ConfigCache CONFIG_CACHE = new ConfigCache();
+
+    /** Recently built models, shared by all exporter formats. */
+    private static final ModelCache MODEL_CACHE = ModelCache.fromSystemProperties();
+
+    // the cache statistics are published with the export metrics
+    static {
+        ExportMetrics metrics = ExportMetrics.shared();
+        metrics.gauge("model.cache.hits", () -> MODEL_CACHE.stats().hits());
+        metrics.gauge("model.cache.misses", () -> MODEL_CACHE.stats().misses());
+        metrics.gauge("model.cache.evictions", () -> MODEL_CACHE.stats().evictions());
+        metrics.gauge("model.cache.size", () -> MODEL_CACHE.stats().size());
+        metrics.gauge("model.cache.triples", () -> MODEL_CACHE.stats().triples());
+        JsonPathCache paths = JsonPathCache.shared();
+        metrics.gauge("jsonpath.cache.hits", () -> paths.stats().hits());
+        metrics.gauge("jsonpath.cache.misses", () -> paths.stats().misses());
+        metrics.gauge("jsonpath.cache.evictions", () -> paths.stats().evictions());
+        metrics.gauge("jsonpath.cache.size", () -> paths.stats().size());
+    }
+
+    /** Validated and compiled form of the current configuration generation. */
+    private static volatile PreparedConfig prepared;
 
     protected Dcat3ExporterBase() {
         try {
-            this.root = RootConfigLoader.load();
-        } catch (IOException e) {
+            prepared();
+        } catch (IOException | RuntimeException e) {
             logger.warning("cannot read configuration: " + e.getMessage());
         }
     }
@@ -76,117 +113,805 @@ public abstract class Dcat3ExporterBase implements Exporter {
     /** The Jena writer name (e.g. "TURTLE", "JSON-LD", "RDF/XML"). */
     protected abstract String getJenaWriterName();
 
+    /**
+     * The Jena streaming writer format, used instead of {@link #getJenaWriterName()} when {@code
+     * dcat.output.streaming} is enabled. Null (the default) when the format can only be written
+     * from a complete model.
+     */
+    protected RDFFormat getStreamingFormat() {
+        return null;
+    }
+
+    /**
+     * Whether this export is written with the streaming writer; by default only when {@code
+     * dcat.output.streaming} is enabled and the format has a streaming writer.
+     */
+    protected boolean isStreaming(RootConfig root) {
+        return root.streaming() && getStreamingFormat() != null;
+    }
+
+    /**
+     * Hook to adapt the stream the triples of a dataset are written to, e.g. to put them in a
+     * named graph. The default returns {@code out} unchanged.
+     *
+     * @param dataset the IRI the configured {@code dcat:Dataset} element mints for this dataset;
+     *     null when there is no such element or its subject is not an IRI
+     */
+    protected StreamRDF target(StreamRDF out, Node dataset) {
+        return out;
+    }
+
+    /**
+     * Input sources this exporter reads itself, on top of the ones the configured mappings read
+     * (e.g. in {@link #target}). None by default.
+     */
+    protected Set<ExportData.Source> requiredSources() {
+        return Set.of();
+    }
+
     @Override
     public String getMediaType() {
         return getMediaTypeValue();
     }
 
+    /** The root configuration currently in use. */
+    protected RootConfig root() throws IOException {
+        return prepared().root();
+    }
+
+    /**
+     * Return the prepared configuration, re-validating and re-compiling only when one of the
+     * configuration files changed.
+     */
+    static PreparedConfig prepared() throws IOException {
+        ConfigCache.Snapshot snapshot = CONFIG_CACHE.get();
+        PreparedConfig current = prepared;
+        if (current != null && current.snapshot() == snapshot) {
+            return current;
+        }
+        synchronized (Dcat3ExporterBase.class) {
+            current = prepared;
+            if (current == null || current.snapshot() != snapshot) {
+                current = PreparedConfig.prepare(snapshot);
+                prepared = current;
+            }
+            return current;
+        }
+    }
+
     @Override
     public void exportDataset(ExportDataProvider dataProvider, OutputStream outputStream)
             throws ExportException {
+        ExportTrace trace = null;
         try {
-            // --- Root-level validation before any export work ---
-            ValidationReport rootReport = Validators.validateRoot(root);
-            for (ValidationMessage message : rootReport.messages()) {
-                logger.log(
-                        message.severity() == Severity.ERROR ? Level.SEVERE : Level.WARNING,
-                        message.toString());
+            PreparedConfig config = validConfig();
+            RootConfig root = config.root();
+
+            long inputStart = System.nanoTime();
+            JsonNode input = input(dataProvider, sources(config, root));
+            trace = ExportTrace.start(root, input, inputStart, List.of(getFormatName()));
+            JaywayJsonFinder jaywayJsonFinder = new JaywayJsonFinder(input);
+            CountingOutputStream counted = new CountingOutputStream(outputStream);
+
+            String cacheKey = cacheKey(config, input);
+            Model cached = cacheKey == null ? null : MODEL_CACHE.get(cacheKey);
+            if (cached != null) {
+                if (trace != null) {
+                    trace.cached();
+                }
+                write(config, cached, jaywayJsonFinder, counted, trace);
+            } else if (isStreaming(root)) {
+                long start = System.nanoTime();
+                StreamRDF out =
+                        target(
+                                StreamRDFWriter.getWriterStream(counted, getStreamingFormat()),
+                                config.datasetSubject(jaywayJsonFinder));
+                startStream(out, config.prefixes());
+                emitDataset(config, config.elements(), jaywayJsonFinder, Map.of(), out, trace);
+                out.finish();
+                record(trace, Phase.SERIALIZATION, start);
+            } else {
+                Model model = build(config, jaywayJsonFinder, cacheKey, trace);
+                try {
+                    // Serialize in the subclass-selected format
+                    write(config, model, jaywayJsonFinder, counted, trace);
+                } finally {
+                    SpillingGraph.release(model);
+                }
             }
-            if (rootReport.hasErrors()) {
-                throw new ExportException("DCAT export aborted: invalid root configuration");
+            ExportMetrics.shared().exported(counted.count());
+            if (trace != null) {
+                trace.finish(counted.count());
+            }
+        } catch (Throwable t) {
+            ExportMetrics.shared().failed();
+            if (trace != null) {
+                trace.fail(t);
+            }
+            logger.warning(t.getMessage());
+            throw new ExportException("DCAT export failed", t);
+        }
+    }
+
+    /**
+     * Export one dataset in several formats, mapping it only once: the graph is built a single
+     * time and every exporter writes it to its own stream, in the iteration order of the map.
+     * Streaming formats send the triples of the built graph through their streaming writer.
+     *
+     * @param targets the stream each exporter writes its format to
+     */
+    public static void exportFormats(
+            ExportDataProvider dataProvider,
+            Map<? extends Dcat3ExporterBase, ? extends OutputStream> targets)
+            throws ExportException {
+        ExportTrace trace = null;
+        try {
+            PreparedConfig config = validConfig();
+            RootConfig root = config.root();
+
+            Set<ExportData.Source> sources = EnumSet.noneOf(ExportData.Source.class);
+            List<String> formats = new ArrayList<>(targets.size());
+            for (Dcat3ExporterBase exporter : targets.keySet()) {
+                sources.addAll(exporter.sources(config, root));
+                formats.add(exporter.getFormatName());
             }
+            long inputStart = System.nanoTime();
+            JsonNode input = input(dataProvider, sources);
+            trace = ExportTrace.start(root, input, inputStart, formats);
+            JaywayJsonFinder finder = new JaywayJsonFinder(input);
 
-            ExportData exportData = ExportData.builder().provider(dataProvider).build();
-            ObjectMapper mapper = new ObjectMapper();
-            if (root.trace()) {
-                try {
-                    String json =
-                            mapper.writerWithDefaultPrettyPrinter().writeValueAsString(exportData);
-                    logger.info(json);
-                } catch (JsonProcessingException e) {
-                    logger.warning(e.getMessage());
-                    return; // don't continue if trace can't be produced
+            String cacheKey = cacheKey(config, input);
+            Model model = cacheKey == null ? null : MODEL_CACHE.get(cacheKey);
+            if (model == null) {
+                model = build(config, finder, cacheKey, trace);
+            } else if (trace != null) {
+                trace.cached();
+            }
+            long bytes = 0;
+            try {
+                for (Map.Entry<? extends Dcat3ExporterBase, ? extends OutputStream> target :
+                        targets.entrySet()) {
+                    Dcat3ExporterBase exporter = target.getKey();
+                    CountingOutputStream counted = new CountingOutputStream(target.getValue());
+                    exporter.write(config, model, finder, counted, trace);
+                    ExportMetrics.shared().exported(counted.count());
+                    bytes += counted.count();
                 }
+            } finally {
+                SpillingGraph.release(model);
+            }
+            if (trace != null) {
+                trace.finish(bytes);
+            }
+        } catch (Throwable t) {
+            ExportMetrics.shared().failed();
+            if (trace != null) {
+                trace.fail(t);
             }
+            logger.warning(t.getMessage());
+            throw new ExportException("DCAT multi-format export failed", t);
+        }
+    }
 
-            JsonNode rootJson = mapper.valueToTree(exportData);
-            JaywayJsonFinder jaywayJsonFinder = new JaywayJsonFinder(rootJson);
+    /**
+     * The model cache key for the input; null when the cache is disabled. Besides the mapping
+     * configuration the key holds the output and build modes, so an export in another mode maps
+     * the dataset itself instead of reusing a graph built the other way.
+     */
+    private static String cacheKey(PreparedConfig config, JsonNode input) {
+        if (!MODEL_CACHE.enabled()) {
+            return null;
+        }
+        RootConfig root = config.root();
+        List<Object> modes = List.of(root.streaming(), root.parallel(), root.parallelThreshold());
+        return ModelCache.key(input, config.fingerprint() + modes);
+    }
 
-            // Build each element
-            Map<String, Model> models = new LinkedHashMap<>();
-            Map<String, List<Resource>> subjects = new LinkedHashMap<>();
-            Prefixes prefixes = new Prefixes(root.prefixes());
+    /**
+     * Build the merged model of one dataset, and cache it under the key unless that is null. A
+     * model that was spilled to disk is not cached; release it with {@link
+     * SpillingGraph#release(Model)} after writing.
+     */
+    private static Model build(
+            PreparedConfig config, JaywayJsonFinder finder, String cacheKey, ExportTrace trace)
+            throws ExportException {
+        Model model = SpillingGraph.createModel();
+        model.setNsPrefixes(config.prefixes().jena());
+        boolean built = false;
+        try {
+            addDataset(config, config.elements(), finder, Map.of(), model, trace);
+            built = true;
+        } finally {
+            if (!built) {
+                SpillingGraph.release(model);
+            }
+        }
+        if (cacheKey != null && !SpillingGraph.spilled(model)) {
+            MODEL_CACHE.put(cacheKey, model);
+        }
+        return model;
+    }
 
-            // Collect ResourceConfig per element for validation
-            Map<String, ResourceConfig> elementConfigs = new LinkedHashMap<>();
+    /** Write a built model in this exporter's format; the model is not modified. */
+    private void write(
+            PreparedConfig config,
+            Model model,
+            JaywayJsonFinder finder,
+            OutputStream outputStream,
+            ExportTrace trace) {
+        long start = System.nanoTime();
+        if (!isStreaming(config.root())) {
+            model.write(outputStream, getJenaWriterName());
+        } else {
+            StreamRDF out =
+                    target(
+                            StreamRDFWriter.getWriterStream(outputStream, getStreamingFormat()),
+                            config.datasetSubject(finder));
+            startStream(out, config.prefixes());
+            model.getGraph().find().forEachRemaining(out::triple);
+            out.finish();
+        }
+        record(trace, Phase.SERIALIZATION, start);
+    }
 
-            for (Element element : root.elements()) {
-                try (InputStream in = resolveElementFile(root.baseDir(), element.file())) {
-                    ResourceConfig resourceConfig = new ResourceConfigLoader().load(in);
-                    elementConfigs.put(element.id(), resourceConfig);
+    /**
+     * Export many datasets as one catalog graph, written to a single stream. The configuration is
+     * validated and compiled once for the whole run.
+     *
+     * <p>Elements with a constant subject IRI and no scope (typically the catalog and the data
+     * service) describe resources shared by all datasets: they are mapped once, from the first
+     * dataset, and related to the elements of every dataset. Nodes with a constant IRI, such as a
+     * publisher, are written once as well. Streaming formats write each dataset as it is mapped;
+     * the other formats collect all datasets in one model first. The {@link #target} of a dataset
+     * only applies to its own triples, so the shared elements end up in the default graph of a
+     * quad format.
+     *
+     * @param providers the datasets to export, consumed once
+     */
+    public void exportDatasets(
+            Iterator<? extends ExportDataProvider> providers, OutputStream outputStream)
+            throws ExportException {
+        exportDatasets(providers, outputStream, null);
+    }
 
-                    ResourceMapper resourceMapper =
-                            new ResourceMapper(resourceConfig, prefixes, element.typeCurieOrIri());
-                    Model elementModel = resourceMapper.build(jaywayJsonFinder);
+    /**
+     * Incremental variant of {@link #exportDatasets(Iterator, OutputStream)}: the triples of each
+     * dataset are kept in the fragment store, keyed on persistent id, version and configuration
+     * fingerprint. A dataset whose fragment is current is not mapped again, and only its native
+     * JSON is read from the provider; the shared elements are always mapped from the first
+     * dataset.
+     *
+     * @param fragments store for the dataset fragments; null to map every dataset
+     */
+    public void exportDatasets(
+            Iterator<? extends ExportDataProvider> providers,
+            OutputStream outputStream,
+            FragmentStore fragments)
+            throws ExportException {
+        Model model = null;
+        ExportTrace trace = null; // of the dataset being mapped
+        try {
+            PreparedConfig config = validConfig();
+            RootConfig root = config.root();
+            boolean streaming = isStreaming(root);
+            CountingOutputStream counted = new CountingOutputStream(outputStream);
+            long streamStart = System.nanoTime();
 
-                    // Collect all subjects by rdf:type
-                    String typeIri = prefixes.expand(element.typeCurieOrIri());
-                    ResIterator it =
-                            elementModel.listResourcesWithProperty(
-                                    RDF.type, elementModel.createResource(typeIri));
-                    List<Resource> subjectList = new ArrayList<>();
-                    while (it.hasNext()) {
-                        subjectList.add(it.next());
-                    }
+            StreamRDF out = null;
+            Set<Triple> sharedTriples = new HashSet<>();
+            if (streaming) {
+                out = StreamRDFWriter.getWriterStream(counted, getStreamingFormat());
+                startStream(out, config.prefixes());
+            } else {
+                model = SpillingGraph.createModel();
+                model.setNsPrefixes(config.prefixes().jena());
+            }
 
-                    models.put(element.id(), elementModel);
-                    if (!subjectList.isEmpty()) {
-                        subjects.put(element.id(), subjectList);
+            Map<String, ElementSubjects> sharedSubjects = null; // null until the first dataset
+            while (providers.hasNext()) {
+                ExportDataProvider provider = providers.next();
+
+                FragmentKey key = null;
+                JsonNode datasetJson = null; // read once for the fragment key
+                if (fragments != null) {
+                    ExportData head =
+                            ExportData.builder()
+                                    .provider(provider)
+                                    .sources(EnumSet.of(ExportData.Source.DATASET_JSON))
+                                    .build();
+                    datasetJson = head.datasetJson();
+                    key = FragmentKey.of(datasetJson, config.fingerprint());
+                    byte[] fragment = sharedSubjects == null ? null : fragment(fragments, key);
+                    if (fragment != null) {
+                        if (streaming) {
+                            // the dataset IRI is the one typed in the fragment, not re-mapped
+                            TripleBuffer triples = new TripleBuffer();
+                            replay(fragment, triples);
+                            triples.sendTo(
+                                    new SharedTripleFilter(
+                                            target(out, config.datasetSubject(triples)),
+                                            config,
+                                            sharedTriples));
+                        } else {
+                            replay(fragment, StreamRDFLib.graph(model.getGraph()));
+                        }
+                        continue;
                     }
                 }
-            }
 
-            // --- Cross-validation of root + all element ResourceConfigs ---
-            ValidationReport report = Validators.validateAll(root, elementConfigs);
-            for (ValidationMessage message : report.messages()) {
-                logger.log(
-                        message.severity() == Severity.ERROR ? Level.SEVERE : Level.WARNING,
-                        message.toString());
-            }
-            if (report.hasErrors()) {
-                throw new ExportException(
-                        "DCAT export aborted: validation errors in element configs");
-            }
-
-            // Merge all element models
-            Model model = ModelFactory.createDefaultModel();
-            model.setNsPrefixes(prefixes.jena());
-            models.values().forEach(model::add);
-
-            // Apply relations from root (n:m)
-            for (Relation relation : root.relations()) {
-                List<Resource> subjList = subjects.get(relation.subjectElementId());
-                List<Resource> objList = subjects.get(relation.objectElementId());
-                if (subjList == null
-                        || subjList.isEmpty()
-                        || objList == null
-                        || objList.isEmpty()) {
-                    continue;
+                long inputStart = System.nanoTime();
+                JsonNode input = input(provider, sources(config, root), datasetJson);
+                trace = ExportTrace.start(root, input, inputStart, List.of(getFormatName()));
+                JaywayJsonFinder finder = new JaywayJsonFinder(input);
+                StreamRDF sink =
+                        streaming
+                                ? new SharedTripleFilter(
+                                        target(out, config.datasetSubject(finder)),
+                                        config,
+                                        sharedTriples)
+                                : null;
+                if (sharedSubjects == null) {
+                    // shared elements are not part of any one dataset: no target() adaptation
+                    sharedSubjects =
+                            streaming
+                                    ? emitDataset(
+                                            config,
+                                            config.sharedElements(),
+                                            finder,
+                                            Map.of(),
+                                            new SharedTripleFilter(out, config, sharedTriples),
+                                            trace)
+                                    : addDataset(
+                                            config,
+                                            config.sharedElements(),
+                                            finder,
+                                            Map.of(),
+                                            model,
+                                            trace);
                 }
-                Property property =
-                        model.createProperty(prefixes.expand(relation.predicateCurieOrIri()));
-                for (Resource s : subjList) {
-                    for (Resource o : objList) {
-                        model.add(s, property, o);
+
+                List<PreparedConfig.PreparedElement> elements = config.datasetElements();
+                if (key == null) {
+                    if (streaming) {
+                        emitDataset(config, elements, finder, sharedSubjects, sink, trace);
+                    } else {
+                        addDataset(config, elements, finder, sharedSubjects, model, trace);
                     }
+                } else {
+                    // map the dataset into a fragment, then add it to the output and the store
+                    ByteArrayOutputStream fragment = new ByteArrayOutputStream();
+                    if (streaming) {
+                        StreamRDF capture =
+                                StreamRDFWriter.getWriterStream(fragment, RDFFormat.NTRIPLES);
+                        capture.start();
+                        emitDataset(
+                                config,
+                                elements,
+                                finder,
+                                sharedSubjects,
+                                new Tee(sink, capture),
+                                trace);
+                        capture.finish();
+                    } else {
+                        Model datasetModel = ModelFactory.createDefaultModel();
+                        addDataset(config, elements, finder, sharedSubjects, datasetModel, trace);
+                        model.add(datasetModel);
+                        RDFDataMgr.write(fragment, datasetModel, RDFFormat.NTRIPLES);
+                    }
+                    store(fragments, key, fragment.toByteArray());
+                }
+                if (trace != null) {
+                    trace.finish(-1); // the output holds all datasets
                 }
             }
 
-            // Serialize in the subclass-selected format
-            model.write(outputStream, getJenaWriterName());
+            if (streaming) {
+                out.finish();
+                ExportMetrics.shared().record(Phase.SERIALIZATION, streamStart);
+            } else {
+                long start = System.nanoTime();
+                model.write(counted, getJenaWriterName());
+                ExportMetrics.shared().record(Phase.SERIALIZATION, start);
+            }
+            ExportMetrics.shared().exported(counted.count());
         } catch (Throwable t) {
+            ExportMetrics.shared().failed();
+            if (trace != null) {
+                trace.fail(t); // no-op when the dataset was already traced
+            }
             logger.warning(t.getMessage());
-            throw new ExportException("DCAT export failed", t);
+            throw new ExportException("DCAT bulk export failed", t);
+        } finally {
+            if (model != null) {
+                SpillingGraph.release(model);
+            }
+        }
+    }
+
+    /** The cached fragment for the key; a failing store counts as a miss. */
+    private static byte[] fragment(FragmentStore fragments, FragmentKey key) {
+        if (key == null) {
+            return null;
+        }
+        try {
+            return fragments.get(key);
+        } catch (IOException | RuntimeException e) {
+            logger.warning("cannot read DCAT fragment of " + key.persistentId() + ": " + e);
+            return null;
+        }
+    }
+
+    /** Keep a fragment for the next run; a failing store does not fail the export. */
+    private static void store(FragmentStore fragments, FragmentKey key, byte[] fragment) {
+        try {
+            fragments.put(key, fragment);
+        } catch (IOException | RuntimeException e) {
+            logger.warning("cannot store DCAT fragment of " + key.persistentId() + ": " + e);
+        }
+    }
+
+    /**
+     * Send the triples of a stored N-Triples fragment to the output. Blank nodes are fresh for each
+     * fragment, so they cannot clash with those of other datasets.
+     */
+    private static void replay(byte[] fragment, StreamRDF out) {
+        RDFParser.source(new ByteArrayInputStream(fragment))
+                .lang(Lang.NTRIPLES)
+                .parse(
+                        new StreamRDFWrapper(out) {
+                            // the output is started and finished by the export itself
+                            @Override
+                            public void start() {}
+
+                            @Override
+                            public void finish() {}
+
+                            @Override
+                            public void base(String base) {}
+
+                            @Override
+                            public void prefix(String prefix, String iri) {}
+                        });
+    }
+
+    /** The prepared configuration, provided it passed validation. */
+    private static PreparedConfig validConfig() throws IOException, ExportException {
+        long start = System.nanoTime();
+        PreparedConfig config = prepared();
+        ExportMetrics.shared().record(Phase.CONFIG, start);
+        // --- Validation results of this configuration generation, validated once ---
+        if (config.report().hasErrors()) {
+            throw new ExportException(
+                    config.hasRootErrors()
+                            ? "DCAT export aborted: invalid root configuration"
+                            : "DCAT export aborted: validation errors in element configs");
+        }
+        return config;
+    }
+
+    /** Fetch the input document of one dataset. */
+    private static JsonNode input(ExportDataProvider dataProvider, Set<ExportData.Source> sources) {
+        return input(dataProvider, sources, null);
+    }
+
+    /**
+     * Fetch the input document of one dataset.
+     *
+     * @param datasetJson native dataset JSON already read from the provider, or null to fetch it
+     */
+    private static JsonNode input(
+            ExportDataProvider dataProvider,
+            Set<ExportData.Source> sources,
+            JsonNode datasetJson) {
+        long start = System.nanoTime();
+        ExportData exportData =
+                ExportData.builder()
+                        .provider(dataProvider)
+                        .sources(sources)
+                        .datasetJson(datasetJson)
+                        .build();
+        JsonNode input = exportData.toJsonNode();
+        ExportMetrics.shared().record(Phase.EXPORT_DATA, start);
+        return input;
+    }
+
+    /**
+     * Build the given elements of one dataset into the model and apply the relations between
+     * them and the already mapped shared elements.
+     *
+     * @param shared subjects of shared elements that are not built again, per element id
+     * @param trace trace of the export, null when it is not traced
+     * @return the subjects per element id, shared ones included
+     */
+    private static Map<String, ElementSubjects> addDataset(
+            PreparedConfig config,
+            List<PreparedConfig.PreparedElement> elements,
+            JaywayJsonFinder finder,
+            Map<String, ElementSubjects> shared,
+            Model model,
+            ExportTrace trace)
+            throws ExportException {
+        Map<String, ElementSubjects> subjects = new LinkedHashMap<>(shared);
+        Graph graph = model.getGraph();
+        long start = System.nanoTime();
+        List<ElementTriples> built = buildElements(elements, config.root(), finder, trace);
+        record(trace, Phase.BUILD, start);
+
+        start = System.nanoTime();
+        for (ElementTriples element : built) {
+            // Assemble the graph once, in element order
+            element.triples().addTo(graph);
+            if (!element.subjects().isEmpty()) {
+                subjects.put(element.element().element().id(), element.subjects());
+            }
+        }
+        record(trace, Phase.MERGE, start);
+
+        // Apply relations from root (n:m)
+        start = System.nanoTime();
+        applyRelations(
+                StreamRDFLib.graph(graph),
+                config.root().relations(),
+                subjects,
+                config.prefixes());
+        record(trace, Phase.RELATIONS, start);
+        return subjects;
+    }
+
+    /**
+     * Map every element into its own triple buffer, in element order. With {@code
+     * dcat.build.parallel} the elements are built concurrently on the shared build executor, and
+     * elements with at least {@code dcat.build.parallel.threshold} scope nodes map those in
+     * parallel too. The mappers only read the input document, and the results are still returned
+     * in element order so the merged model is the same as with a sequential build.
+     */
+    private static List<ElementTriples> buildElements(
+            List<PreparedConfig.PreparedElement> elements,
+            RootConfig root,
+            JaywayJsonFinder finder,
+            ExportTrace trace)
+            throws ExportException {
+        List<ElementTriples> result = new ArrayList<>(elements.size());
+        if (!root.parallel()) {
+            for (PreparedConfig.PreparedElement element : elements) {
+                result.add(ElementTriples.build(element, finder, Integer.MAX_VALUE, trace));
+            }
+            return result;
+        }
+
+        int threshold = root.parallelThreshold();
+        List<Callable<ElementTriples>> tasks = new ArrayList<>(elements.size());
+        for (PreparedConfig.PreparedElement element : elements) {
+            tasks.add(() -> ElementTriples.build(element, finder, threshold, trace));
+        }
+        try {
+            return BuildExecutor.invokeAll(tasks);
+        } catch (ExecutionException e) {
+            throw new ExportException("DCAT export failed building an element", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExportException("DCAT export interrupted", e);
+        }
+    }
+
+    /**
+     * The triples of one element and its subjects typed with the element type, as tracked by the
+     * mapper while emitting; no per-element model or index is built.
+     */
+    private record ElementTriples(
+            PreparedConfig.PreparedElement element,
+            TripleBuffer triples,
+            ElementSubjects subjects) {
+
+        /**
+         * @param parallelThreshold scope nodes from which the element is mapped in parallel
+         */
+        static ElementTriples build(
+                PreparedConfig.PreparedElement element,
+                JaywayJsonFinder finder,
+                int parallelThreshold,
+                ExportTrace trace) {
+            long start = System.nanoTime();
+            ElementTrace elementTrace = elementTrace(trace, element);
+            TripleBuffer triples = new TripleBuffer();
+            ElementSubjects subjects = element.newSubjects();
+            element.mapper()
+                    .emit(finder.traced(elementTrace), triples, parallelThreshold, subjects);
+            recordElement(elementTrace, element, start, triples.size());
+            return new ElementTriples(element, triples, subjects);
+        }
+    }
+
+    /**
+     * Sources to fetch from the provider: only those read, plus the native dataset JSON when
+     * tracing, for the persistent id the trace is sampled on.
+     */
+    private Set<ExportData.Source> sources(PreparedConfig config, RootConfig root) {
+        Set<ExportData.Source> sources = EnumSet.noneOf(ExportData.Source.class);
+        sources.addAll(config.sources());
+        sources.addAll(requiredSources());
+        if (root.trace()) {
+            sources.add(ExportData.Source.DATASET_JSON);
+        }
+        return sources;
+    }
+
+    private static void startStream(StreamRDF out, Prefixes prefixes) {
+        out.start();
+        prefixes.jena().getNsPrefixMap().forEach(out::prefix);
+    }
+
+    /**
+     * Write the triples of one dataset to the stream as the mappers produce them, without element
+     * models or a merged model; relation triples follow from the collected subjects.
+     *
+     * @param shared subjects of shared elements that are not emitted again, per element id
+     * @param trace trace of the export, null when it is not traced
+     * @return the subjects per element id, shared ones included
+     */
+    private static Map<String, ElementSubjects> emitDataset(
+            PreparedConfig config,
+            List<PreparedConfig.PreparedElement> elements,
+            JaywayJsonFinder finder,
+            Map<String, ElementSubjects> shared,
+            StreamRDF out,
+            ExportTrace trace) {
+        Map<String, ElementSubjects> subjects = new LinkedHashMap<>(shared);
+        for (PreparedConfig.PreparedElement element : elements) {
+            long start = System.nanoTime();
+            ElementTrace elementTrace = elementTrace(trace, element);
+            TripleCounter counter = new TripleCounter(out);
+            ElementSubjects elementSubjects = element.newSubjects();
+            element.mapper()
+                    .emit(finder.traced(elementTrace), counter, Integer.MAX_VALUE, elementSubjects);
+            recordElement(elementTrace, element, start, counter.count);
+            if (!elementSubjects.isEmpty()) {
+                subjects.put(element.element().id(), elementSubjects);
+            }
+        }
+        long start = System.nanoTime();
+        applyRelations(out, config.root().relations(), subjects, config.prefixes());
+        record(trace, Phase.RELATIONS, start);
+        return subjects;
+    }
+
+    /** Record a phase in the metrics and, for a traced export, in its trace. */
+    private static void record(ExportTrace trace, Phase phase, long start) {
+        ExportMetrics.shared().record(phase, start);
+        if (trace != null) {
+            trace.phase(phase, System.nanoTime() - start);
+        }
+    }
+
+    /** The trace of the element within a traced export, else null. */
+    private static ElementTrace elementTrace(
+            ExportTrace trace, PreparedConfig.PreparedElement element) {
+        return trace == null ? null : trace.element(element.element().id());
+    }
+
+    /** Record the mapping of one element in the metrics and, when traced, in its trace. */
+    private static void recordElement(
+            ElementTrace trace, PreparedConfig.PreparedElement element, long start, long triples) {
+        ExportMetrics.shared().recordElement(element.element().id(), start, triples);
+        if (trace != null) {
+            trace.built(System.nanoTime() - start, triples);
+        }
+    }
+
+    /** Counts the triples passed on to the output, for the per-element metrics. */
+    private static final class TripleCounter extends StreamRDFWrapper {
+        private long count;
+
+        TripleCounter(StreamRDF out) {
+            super(out);
+        }
+
+        @Override
+        public void triple(Triple triple) {
+            count++;
+            super.triple(triple);
+        }
+    }
+
+    /** Sends the triples to the output and to a second stream, e.g. to capture a fragment. */
+    private static final class Tee extends StreamRDFWrapper {
+        private final StreamRDF copy;
+
+        Tee(StreamRDF out, StreamRDF copy) {
+            super(out);
+            this.copy = copy;
+        }
+
+        @Override
+        public void triple(Triple triple) {
+            copy.triple(triple);
+            super.triple(triple);
+        }
+    }
+
+    /**
+     * Drops triples about constant IRIs (shared nodes such as a publisher) that were already
+     * written for an earlier dataset of a bulk export.
+     */
+    private static final class SharedTripleFilter extends StreamRDFWrapper {
+        private final PreparedConfig config;
+        private final Set<Triple> written;
+
+        SharedTripleFilter(StreamRDF out, PreparedConfig config, Set<Triple> written) {
+            super(out);
+            this.config = config;
+            this.written = written;
+        }
+
+        @Override
+        public void triple(Triple triple) {
+            Node subject = triple.getSubject();
+            if (subject.isURI() && config.isConstantIri(subject.getURI()) && !written.add(triple)) {
+                return;
+            }
+            super.triple(triple);
+        }
+    }
+
+    /**
+     * Link the subjects of the related elements: every subject of the relation's subject element
+     * gets the predicate to every subject of its object element. A keyed relation only links the
+     * subjects with an equal join key; the keys were indexed while the elements were mapped, so
+     * the join is linear in the number of subjects plus the number of links.
+     *
+     * @param subjects subjects per element id
+     */
+    static void applyRelations(
+            StreamRDF out,
+            List<Relation> relations,
+            Map<String, ElementSubjects> subjects,
+            Prefixes prefixes) {
+        for (Relation relation : relations) {
+            ElementSubjects subj = subjects.get(relation.subjectElementId());
+            ElementSubjects obj = subjects.get(relation.objectElementId());
+            if (subj == null || subj.isEmpty() || obj == null || obj.isEmpty()) {
+                continue;
+            }
+            Node property = prefixes.node(relation.predicateCurieOrIri());
+            if (relation.keyed()) {
+                join(out, property, relation, subj, obj);
+                continue;
+            }
+            List<Node> objList = obj.list();
+            for (Node s : subj.list()) {
+                for (Node o : objList) {
+                    out.triple(Triple.create(s, property, o));
+                }
+            }
+        }
+    }
+
+    /** Link the subjects of a keyed relation per join key, each pair once. */
+    private static void join(
+            StreamRDF out,
+            Node property,
+            Relation relation,
+            ElementSubjects subj,
+            ElementSubjects obj) {
+        Map<String, List<Node>> subjKeys = subj.byKey(relation.subjectJoin());
+        Map<String, List<Node>> objKeys = obj.byKey(relation.objectJoin());
+        if (subjKeys == null || objKeys == null) {
+            return;
+        }
+        Set<Triple> linked = new HashSet<>();
+        for (Map.Entry<String, List<Node>> keyed : subjKeys.entrySet()) {
+            List<Node> objList = objKeys.get(keyed.getKey());
+            if (objList == null) {
+                continue;
+            }
+            for (Node s : keyed.getValue()) {
+                for (Node o : objList) {
+                    Triple triple = Triple.create(s, property, o);
+                    if (linked.add(triple)) {
+                        out.triple(triple);
+                    }
+                }
+            }
         }
     }
 }
@@ -0,0 +1,67 @@
+// SPDX-License-Identifier: (Apache-2.0 OR MIT)
+package io.gdcc.spi.export.dcat3;
+
+import io.gdcc.spi.export.dcat3.config.model.RootConfig;
+import java.util.Locale;
+import org.apache.jena.riot.RDFFormat;
+
+/**
+ * Binary RDF encoding for machine-to-machine harvesting, always written as a stream. The
+ * subclasses only name the encoding; the output is not offered to users as a download. Registered
+ * with Dataverse only in a build with the {@code extra-formats} profile.
+ */
+public abstract class Dcat3ExporterBinary extends Dcat3ExporterBase {
+    private final String formatName;
+    private final String displayName;
+    private final String mediaType;
+    private final String jenaWriterName;
+    private final RDFFormat streamingFormat;
+
+    protected Dcat3ExporterBinary(
+            String formatName,
+            String displayName,
+            String mediaType,
+            String jenaWriterName,
+            RDFFormat streamingFormat) {
+        this.formatName = formatName;
+        this.displayName = displayName;
+        this.mediaType = mediaType;
+        this.jenaWriterName = jenaWriterName;
+        this.streamingFormat = streamingFormat;
+    }
+
+    @Override
+    public String getFormatName() {
+        return formatName;
+    }
+
+    @Override
+    public String getDisplayName(Locale locale) {
+        return displayName;
+    }
+
+    @Override
+    public Boolean isAvailableToUsers() {
+        return false;
+    }
+
+    @Override
+    protected String getMediaTypeValue() {
+        return mediaType;
+    }
+
+    @Override
+    protected String getJenaWriterName() {
+        return jenaWriterName;
+    }
+
+    @Override
+    protected RDFFormat getStreamingFormat() {
+        return streamingFormat;
+    }
+
+    @Override
+    protected boolean isStreaming(RootConfig root) {
+        return true;
+    }
+}
@@ -0,0 +1,64 @@
+// SPDX-License-Identifier: (Apache-2.0 OR MIT)
+package io.gdcc.spi.export.dcat3;
+
+import io.gdcc.spi.export.dcat3.config.model.RootConfig;
+import java.util.Locale;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWrapper;
+import org.apache.jena.sparql.core.Quad;
+
+/**
+ * Line-based N-Quads, always written with the streaming writer. All triples of a dataset are put
+ * in a graph named after the dataset IRI, the subject the configured {@code dcat:Dataset} element
+ * mints; without such an element they go to the default graph. In a bulk export the shared
+ * elements (catalog, data service) go to the default graph. Registered with Dataverse only in a
+ * build with the {@code extra-formats} profile.
+ */
+public class Dcat3ExporterNQuads extends Dcat3ExporterBase {
+
+    @Override
+    public String getFormatName() {
+        return "dcat3-nquads";
+    }
+
+    @Override
+    public String getDisplayName(Locale locale) {
+        return "DCAT-3 (N-Quads)";
+    }
+
+    @Override
+    protected String getMediaTypeValue() {
+        return "application/n-quads";
+    }
+
+    @Override
+    protected String getJenaWriterName() {
+        return "N-QUADS";
+    }
+
+    @Override
+    protected RDFFormat getStreamingFormat() {
+        return RDFFormat.NQUADS;
+    }
+
+    @Override
+    protected boolean isStreaming(RootConfig root) {
+        return true;
+    }
+
+    @Override
+    protected StreamRDF target(StreamRDF out, Node dataset) {
+        if (dataset == null) {
+            return out;
+        }
+        return new StreamRDFWrapper(out) {
+            @Override
+            public void triple(Triple triple) {
+                quad(Quad.create(dataset, triple));
+            }
+        };
+    }
+}
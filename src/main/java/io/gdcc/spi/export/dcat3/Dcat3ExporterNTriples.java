@@ -0,0 +1,42 @@
+// SPDX-License-Identifier: (Apache-2.0 OR MIT)
+package io.gdcc.spi.export.dcat3;
+
+import io.gdcc.spi.export.dcat3.config.model.RootConfig;
+import java.util.Locale;
+import org.apache.jena.riot.RDFFormat;
+
+/**
+ * Line-based N-Triples, always written with the streaming writer. Registered with Dataverse only
+ * in a build with the {@code extra-formats} profile.
+ */
+public class Dcat3ExporterNTriples extends Dcat3ExporterBase {
+    @Override
+    public String getFormatName() {
+        return "dcat3-ntriples";
+    }
+
+    @Override
+    public String getDisplayName(Locale locale) {
+        return "DCAT-3 (N-Triples)";
+    }
+
+    @Override
+    protected String getMediaTypeValue() {
+        return "application/n-triples";
+    }
+
+    @Override
+    protected String getJenaWriterName() {
+        return "N-TRIPLES";
+    }
+
+    @Override
+    protected RDFFormat getStreamingFormat() {
+        return RDFFormat.NTRIPLES;
+    }
+
+    @Override
+    protected boolean isStreaming(RootConfig root) {
+        return true;
+    }
+}
@@ -0,0 +1,16 @@
+// SPDX-License-Identifier: (Apache-2.0 OR MIT)
+package io.gdcc.spi.export.dcat3;
+
+import org.apache.jena.riot.RDFFormat;
+
+/** Binary RDF Protobuf encoding for machine-to-machine harvesting. */
+public class Dcat3ExporterRdfProtobuf extends Dcat3ExporterBinary {
+    public Dcat3ExporterRdfProtobuf() {
+        super(
+                "dcat3-rdfprotobuf",
+                "DCAT-3 (RDF Protobuf)",
+                "application/rdf+protobuf",
+                "RDF-PROTO",
+                RDFFormat.RDF_PROTO);
+    }
+}
@@ -0,0 +1,16 @@
+// SPDX-License-Identifier: (Apache-2.0 OR MIT)
+package io.gdcc.spi.export.dcat3;
+
+import org.apache.jena.riot.RDFFormat;
+
+/** Binary RDF Thrift encoding for machine-to-machine harvesting. */
+public class Dcat3ExporterRdfThrift extends Dcat3ExporterBinary {
+    public Dcat3ExporterRdfThrift() {
+        super(
+                "dcat3-rdfthrift",
+                "DCAT-3 (RDF Thrift)",
+                "application/rdf+thrift",
+                "RDF-THRIFT",
+                RDFFormat.RDF_THRIFT);
+    }
+}
@@ -6,6 +6,7 @@ package io.gdcc.spi.export.dcat3;
 import com.google.auto.service.AutoService;
 import io.gdcc.spi.export.Exporter;
 import java.util.Locale;
+import org.apache.jena.riot.RDFFormat;
 
 @AutoService(Exporter.class)
 public class Dcat3ExporterTurtle extends Dcat3ExporterBase {
@@ -28,4 +29,9 @@ public class Dcat3ExporterTurtle extends Dcat3ExporterBase {
     protected String getJenaWriterName() {
         return "TURTLE";
     }
+
+    @Override
+    protected RDFFormat getStreamingFormat() {
+        return RDFFormat.TURTLE_BLOCKS;
+    }
 }
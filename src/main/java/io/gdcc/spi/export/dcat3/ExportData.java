@@ -3,9 +3,12 @@ package io.gdcc.spi.export.dcat3;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import io.gdcc.spi.export.ExportDataProvider;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * @param datasetJson native JSON tree
@@ -21,36 +24,120 @@ public record ExportData(
         JsonNode datasetSchemaDotOrg,
         JsonNode dataCiteXml) {
 
+    private static final XmlMapper XML_MAPPER = createXmlMapper();
+
+    /** The provider sources, named after their field in {@link #toJsonNode()}. */
+    public enum Source {
+        DATASET_JSON("datasetJson"),
+        DATASET_ORE("datasetORE"),
+        DATASET_FILE_DETAILS("datasetFileDetails"),
+        DATASET_SCHEMA_DOT_ORG("datasetSchemaDotOrg"),
+        DATA_CITE_XML("dataCiteXml");
+
+        private final String field;
+
+        Source(String field) {
+            this.field = field;
+        }
+
+        public String field() {
+            return field;
+        }
+
+        /** The source for a top-level field name, null when there is none. */
+        public static Source ofField(String field) {
+            for (Source source : values()) {
+                if (source.field.equals(field)) {
+                    return source;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static XmlMapper createXmlMapper() {
+        XmlMapper xmlMapper = new XmlMapper();
+        xmlMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        return xmlMapper;
+    }
+
     public static ExportDataBuilder builder() {
         return new ExportDataBuilder();
     }
 
+    /**
+     * The JSON document the mapping JSONPaths are evaluated against: one field per source. The
+     * source trees are linked into the document, not copied.
+     */
+    public JsonNode toJsonNode() {
+        ObjectNode root = JsonNodeFactory.instance.objectNode();
+        root.set(Source.DATASET_JSON.field(), datasetJson);
+        root.set(Source.DATASET_ORE.field(), datasetORE);
+        root.set(Source.DATASET_FILE_DETAILS.field(), datasetFileDetails);
+        root.set(Source.DATASET_SCHEMA_DOT_ORG.field(), datasetSchemaDotOrg);
+        root.set(Source.DATA_CITE_XML.field(), dataCiteXml);
+        return root;
+    }
+
     public static class ExportDataBuilder {
 
         private ExportDataProvider provider;
+        private Set<Source> sources = EnumSet.allOf(Source.class);
+        private JsonNode datasetJson;
 
         public ExportDataBuilder provider(ExportDataProvider provider) {
             this.provider = provider;
             return this;
         }
 
+        /**
+         * Only fetch these sources from the provider (default: all). The other fields stay null,
+         * so their provider methods, which may be expensive, are never called.
+         */
+        public ExportDataBuilder sources(Set<Source> sources) {
+            this.sources =
+                    sources.isEmpty() ? EnumSet.noneOf(Source.class) : EnumSet.copyOf(sources);
+            return this;
+        }
+
+        /**
+         * Use this already converted native dataset JSON instead of asking the provider for it
+         * again, e.g. after reading the persistent id from it. Only used when {@link
+         * Source#DATASET_JSON} is one of the sources.
+         */
+        public ExportDataBuilder datasetJson(JsonNode datasetJson) {
+            this.datasetJson = datasetJson;
+            return this;
+        }
+
         public ExportData build() {
-            ObjectMapper jsonMapper = new ObjectMapper();
-            jsonMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-            XmlMapper xmlMapper = new XmlMapper();
-            xmlMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
             try {
-                // provider already returns JsonObject/JsonArray for JSON sources
-                // read them as JsonNode via a single roundtrip (or better — convert directly)
-                JsonNode datasetJson = jsonMapper.readTree(provider.getDatasetJson().toString());
-                JsonNode datasetORE = jsonMapper.readTree(provider.getDatasetORE().toString());
+                // provider already returns JsonObject/JsonArray for JSON sources: convert the
+                // trees directly, without a string roundtrip
+                JsonNode datasetJson = null;
+                if (sources.contains(Source.DATASET_JSON)) {
+                    datasetJson =
+                            this.datasetJson != null
+                                    ? this.datasetJson
+                                    : JsonValueConverter.toJsonNode(provider.getDatasetJson());
+                }
+                JsonNode datasetORE =
+                        sources.contains(Source.DATASET_ORE)
+                                ? JsonValueConverter.toJsonNode(provider.getDatasetORE())
+                                : null;
                 JsonNode datasetFileDetails =
-                        jsonMapper.readTree(provider.getDatasetFileDetails().toString());
+                        sources.contains(Source.DATASET_FILE_DETAILS)
+                                ? JsonValueConverter.toJsonNode(provider.getDatasetFileDetails())
+                                : null;
                 JsonNode datasetSchemaDotOrg =
-                        jsonMapper.readTree(provider.getDatasetSchemaDotOrg().toString());
+                        sources.contains(Source.DATASET_SCHEMA_DOT_ORG)
+                                ? JsonValueConverter.toJsonNode(provider.getDatasetSchemaDotOrg())
+                                : null;
 
                 // DataCite XML → JsonNode once
-                JsonNode dataCiteXml = xmlMapper.readTree(provider.getDataCiteXml());
+                String dataCite =
+                        sources.contains(Source.DATA_CITE_XML) ? provider.getDataCiteXml() : null;
+                JsonNode dataCiteXml = dataCite == null ? null : XML_MAPPER.readTree(dataCite);
 
                 // Now construct ExportData with JsonNodes
                 return new ExportData(
@@ -0,0 +1,79 @@
+package io.gdcc.spi.export.dcat3;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
+import java.math.BigInteger;
+import java.util.Map;
+
+/**
+ * Converts jakarta.json trees (as returned by {@link io.gdcc.spi.export.ExportDataProvider}) into
+ * Jackson trees by walking them once, without serializing to a string and parsing it again.
+ *
+ * <p>Numbers get the node types Jackson's own parser would produce: int, long or BigInteger for
+ * integral values and double otherwise.
+ */
+final class JsonValueConverter {
+    private static final JsonNodeFactory FACTORY = JsonNodeFactory.instance;
+    private static final BigInteger INT_MIN = BigInteger.valueOf(Integer.MIN_VALUE);
+    private static final BigInteger INT_MAX = BigInteger.valueOf(Integer.MAX_VALUE);
+    private static final BigInteger LONG_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+    private static final BigInteger LONG_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+
+    private JsonValueConverter() {}
+
+    /**
+     * @param value jakarta.json value, may be null
+     * @return the equivalent Jackson tree, or null when value is null
+     */
+    static JsonNode toJsonNode(JsonValue value) {
+        if (value == null) {
+            return null;
+        }
+        return switch (value.getValueType()) {
+            case OBJECT -> toObjectNode(value.asJsonObject());
+            case ARRAY -> toArrayNode(value.asJsonArray());
+            case STRING -> FACTORY.textNode(((JsonString) value).getString());
+            case NUMBER -> toNumberNode((JsonNumber) value);
+            case TRUE -> FACTORY.booleanNode(true);
+            case FALSE -> FACTORY.booleanNode(false);
+            case NULL -> FACTORY.nullNode();
+        };
+    }
+
+    private static ObjectNode toObjectNode(JsonObject object) {
+        ObjectNode node = FACTORY.objectNode();
+        for (Map.Entry<String, JsonValue> entry : object.entrySet()) {
+            node.set(entry.getKey(), toJsonNode(entry.getValue()));
+        }
+        return node;
+    }
+
+    private static ArrayNode toArrayNode(JsonArray array) {
+        ArrayNode node = FACTORY.arrayNode(array.size());
+        for (JsonValue item : array) {
+            node.add(toJsonNode(item));
+        }
+        return node;
+    }
+
+    private static JsonNode toNumberNode(JsonNumber number) {
+        if (!number.isIntegral()) {
+            return FACTORY.numberNode(number.doubleValue());
+        }
+        BigInteger integral = number.bigIntegerValue();
+        if (integral.compareTo(INT_MIN) >= 0 && integral.compareTo(INT_MAX) <= 0) {
+            return FACTORY.numberNode(integral.intValue());
+        }
+        if (integral.compareTo(LONG_MIN) >= 0 && integral.compareTo(LONG_MAX) <= 0) {
+            return FACTORY.numberNode(integral.longValue());
+        }
+        return FACTORY.numberNode(integral);
+    }
+}
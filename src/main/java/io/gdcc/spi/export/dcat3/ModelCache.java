@@ -0,0 +1,150 @@
+package io.gdcc.spi.export.dcat3;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import org.apache.jena.rdf.model.Model;
+
+/**
+ * Keeps recently built export models, so that writing the same dataset in another format (Turtle
+ * after JSON-LD after RDF/XML) does not map it again. Models are keyed on a hash of the input
+ * document and the configuration fingerprint; a cached model is only read, never modified.
+ *
+ * <p>The cache is off unless {@value #TRIPLES_PROP} sets a bound on the total number of triples it
+ * keeps on the heap (default {@value #DEFAULT_MAX_TRIPLES}, off). Entries also expire after
+ * {@value #TTL_PROP} seconds (default {@value #DEFAULT_TTL_SECONDS}). The least recently used
+ * entries are evicted first. While the cache is off no key is computed, so an export does not pay
+ * for hashing its input.
+ */
+final class ModelCache {
+    static final String TRIPLES_PROP = "dataverse.dcat3.model.cache.triples";
+    static final String TTL_PROP = "dataverse.dcat3.model.cache.ttl";
+    static final long DEFAULT_MAX_TRIPLES = 0;
+    static final long DEFAULT_TTL_SECONDS = 600;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** Cache counters at one point in time. */
+    record Stats(long hits, long misses, long evictions, int size, long triples) {}
+
+    private record Entry(Model model, long triples, long expires) {}
+
+    private final long maxTriples;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long triples;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    ModelCache(long maxTriples, Duration ttl, LongSupplier nanoClock) {
+        this.maxTriples = maxTriples;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /** A cache sized by the system properties. */
+    static ModelCache fromSystemProperties() {
+        return new ModelCache(
+                Long.getLong(TRIPLES_PROP, DEFAULT_MAX_TRIPLES),
+                Duration.ofSeconds(Long.getLong(TTL_PROP, DEFAULT_TTL_SECONDS)),
+                System::nanoTime);
+    }
+
+    boolean enabled() {
+        return maxTriples > 0 && ttlNanos > 0;
+    }
+
+    /**
+     * The cache key for an input document under a configuration: SHA-256 over the fingerprint and
+     * the serialized document.
+     */
+    static String key(JsonNode input, String configFingerprint) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (OutputStream out =
+                    new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+                out.write(String.valueOf(configFingerprint).getBytes(StandardCharsets.UTF_8));
+                out.write('\n');
+                MAPPER.writeValue(out, input);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | IOException e) {
+            throw new IllegalStateException("cannot hash export input", e);
+        }
+    }
+
+    /** The cached model, or null when absent or expired. */
+    synchronized Model get(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expires() - nanoClock.getAsLong() <= 0) {
+            remove(key);
+            entry = null;
+        }
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.model();
+    }
+
+    /** Cache a model; models larger than the whole cache are not kept. */
+    synchronized void put(String key, Model model) {
+        long size = model.size();
+        if (!enabled() || size > maxTriples) {
+            return;
+        }
+        remove(key);
+        entries.put(key, new Entry(model, size, nanoClock.getAsLong() + ttlNanos));
+        triples += size;
+        evict();
+    }
+
+    private void evict() {
+        long now = nanoClock.getAsLong();
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next().getValue();
+            // least recently used first; expired entries go regardless of the size bound
+            if (triples <= maxTriples && entry.expires() - now > 0) {
+                continue;
+            }
+            it.remove();
+            triples -= entry.triples();
+            evictions++;
+        }
+    }
+
+    private void remove(String key) {
+        Entry previous = entries.remove(key);
+        if (previous != null) {
+            triples -= previous.triples();
+        }
+    }
+
+    synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, entries.size(), triples);
+    }
+
+    /** Drop all entries and reset the counters. */
+    synchronized void clear() {
+        entries.clear();
+        triples = 0;
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+}
@@ -0,0 +1,282 @@
+package io.gdcc.spi.export.dcat3;
+
+import io.gdcc.spi.export.dcat3.config.loader.ConfigCache;
+import io.gdcc.spi.export.dcat3.config.model.Element;
+import io.gdcc.spi.export.dcat3.config.model.Relation;
+import io.gdcc.spi.export.dcat3.config.model.ResourceConfig;
+import io.gdcc.spi.export.dcat3.config.model.RootConfig;
+import io.gdcc.spi.export.dcat3.config.validate.Severity;
+import io.gdcc.spi.export.dcat3.config.validate.ValidationMessage;
+import io.gdcc.spi.export.dcat3.config.validate.ValidationReport;
+import io.gdcc.spi.export.dcat3.config.validate.Validators;
+import io.gdcc.spi.export.dcat3.fragment.FragmentKey;
+import io.gdcc.spi.export.dcat3.mapping.ElementSubjects;
+import io.gdcc.spi.export.dcat3.mapping.JaywayJsonFinder;
+import io.gdcc.spi.export.dcat3.mapping.Prefixes;
+import io.gdcc.spi.export.dcat3.mapping.ResourceMapper;
+import io.gdcc.spi.export.dcat3.mapping.ResourcePlan;
+import io.gdcc.spi.export.dcat3.mapping.TripleBuffer;
+import io.gdcc.spi.export.dcat3.metrics.ExportMetrics;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.vocabulary.DCAT;
+
+/**
+ * Everything derived from one configuration generation: validation results, prefixes and the
+ * compiled mapper per element. Built once per {@link ConfigCache.Snapshot} and shared by all
+ * exports (and all exporter formats) until the configuration changes.
+ */
+final class PreparedConfig {
+    private static final Logger logger = Logger.getLogger(PreparedConfig.class.getCanonicalName());
+
+    /** Bump when the mapping code changes what a configuration produces. */
+    private static final String FINGERPRINT_VERSION = "1:";
+
+    /**
+     * @param typeIri expanded rdf:type of the element subjects
+     * @param joinPaths join keys of the keyed relations this element takes part in
+     */
+    record PreparedElement(
+            Element element, String typeIri, ResourceMapper mapper, Set<String> joinPaths) {
+
+        /** True for an element that describes the same resource for every dataset. */
+        boolean shared() {
+            return mapper.plan().sharedSubject();
+        }
+
+        /** A collector for the subjects of one mapping of this element, indexed by join key. */
+        ElementSubjects newSubjects() {
+            return new ElementSubjects(joinPaths);
+        }
+    }
+
+    private final ConfigCache.Snapshot snapshot;
+    private final ValidationReport report;
+    private final boolean rootErrors;
+    private final Prefixes prefixes;
+    private final List<PreparedElement> elements;
+    private final List<PreparedElement> sharedElements;
+    private final List<PreparedElement> datasetElements;
+    private final PreparedElement datasetElement;
+    private final Set<ExportData.Source> sources;
+    private final String fingerprint;
+
+    private PreparedConfig(
+            ConfigCache.Snapshot snapshot,
+            ValidationReport report,
+            boolean rootErrors,
+            Prefixes prefixes,
+            List<PreparedElement> elements) {
+        this.snapshot = snapshot;
+        this.report = report;
+        this.rootErrors = rootErrors;
+        this.prefixes = prefixes;
+        this.elements = elements;
+        this.sharedElements = elements.stream().filter(PreparedElement::shared).toList();
+        this.datasetElements = elements.stream().filter(element -> !element.shared()).toList();
+        this.datasetElement =
+                datasetElements.stream()
+                        .filter(element -> DCAT.Dataset.getURI().equals(element.typeIri()))
+                        .findFirst()
+                        .orElse(null);
+        this.fingerprint = prefixes == null ? null : fingerprint(snapshot);
+        this.sources = collectSources(elements);
+    }
+
+    /**
+     * Validate and compile a configuration generation. The root config and each element config
+     * are validated once, and the messages are logged here, once per generation; exports only
+     * consult the kept report. The element configs are not validated when the root config has
+     * errors.
+     */
+    static PreparedConfig prepare(ConfigCache.Snapshot snapshot) {
+        RootConfig root = snapshot.root();
+        ExportMetrics metrics = ExportMetrics.shared();
+        long start = metrics.start();
+        ValidationReport report = Validators.validateRoot(root);
+        boolean rootErrors = report.hasErrors();
+        if (!rootErrors) {
+            report = report.with(Validators.validateResources(root, snapshot.elementConfigs()));
+        }
+        metrics.record(ExportMetrics.Phase.VALIDATION, start);
+        log(report);
+        if (report.hasErrors()) {
+            return new PreparedConfig(snapshot, report, rootErrors, null, List.of());
+        }
+
+        Prefixes prefixes = new Prefixes(root.prefixes());
+        Map<String, Set<String>> joinPaths = joinPaths(root.relations());
+        List<PreparedElement> elements = new ArrayList<>();
+        for (Element element : root.elements()) {
+            ResourceConfig resourceConfig = snapshot.elementConfigs().get(element.id());
+            elements.add(
+                    new PreparedElement(
+                            element,
+                            prefixes.expand(element.typeCurieOrIri()),
+                            new ResourceMapper(resourceConfig, prefixes, element.typeCurieOrIri()),
+                            joinPaths.getOrDefault(element.id(), Set.of())));
+        }
+        return new PreparedConfig(
+                snapshot, report, false, prefixes, Collections.unmodifiableList(elements));
+    }
+
+    /** The join paths per element id, from both sides of the keyed relations. */
+    private static Map<String, Set<String>> joinPaths(List<Relation> relations) {
+        Map<String, Set<String>> joinPaths = new HashMap<>();
+        for (Relation relation : relations) {
+            if (!relation.keyed()) {
+                continue;
+            }
+            joinPaths
+                    .computeIfAbsent(relation.subjectElementId(), id -> new LinkedHashSet<>())
+                    .add(relation.subjectJoin());
+            joinPaths
+                    .computeIfAbsent(relation.objectElementId(), id -> new LinkedHashSet<>())
+                    .add(relation.objectJoin());
+        }
+        return joinPaths;
+    }
+
+    /**
+     * The input sources read by the compiled mappers and by the join keys of keyed relations. All
+     * sources when a selector cannot be analysed (e.g. deep scans such as {@code
+     * $..metadataBlocks}).
+     */
+    private static Set<ExportData.Source> collectSources(List<PreparedElement> elements) {
+        Set<ExportData.Source> sources = EnumSet.noneOf(ExportData.Source.class);
+        for (PreparedElement element : elements) {
+            ResourcePlan plan = element.mapper().plan();
+            if (!addSources(plan.rootFields(), sources)
+                    || !addSources(plan.rootFields(element.joinPaths()), sources)) {
+                return Collections.unmodifiableSet(EnumSet.allOf(ExportData.Source.class));
+            }
+        }
+        logger.fine(() -> "DCAT export reads sources " + sources);
+        return Collections.unmodifiableSet(sources);
+    }
+
+    /**
+     * Add the sources of the top-level fields.
+     *
+     * @return false when the fields are unknown (null)
+     */
+    private static boolean addSources(Set<String> fields, Set<ExportData.Source> sources) {
+        if (fields == null) {
+            return false;
+        }
+        for (String field : fields) {
+            ExportData.Source source = ExportData.Source.ofField(field);
+            if (source != null) {
+                sources.add(source);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hash of everything that determines the mapped triples: the canonical text of the mapping
+     * properties, which does not depend on how the configuration model prints or orders itself.
+     */
+    private static String fingerprint(ConfigCache.Snapshot snapshot) {
+        return FragmentKey.sha256(FINGERPRINT_VERSION + snapshot.canonical());
+    }
+
+    private static void log(ValidationReport report) {
+        for (ValidationMessage message : report.messages()) {
+            logger.log(
+                    message.severity() == Severity.ERROR ? Level.SEVERE : Level.WARNING,
+                    message.toString());
+        }
+    }
+
+    ConfigCache.Snapshot snapshot() {
+        return snapshot;
+    }
+
+    RootConfig root() {
+        return snapshot.root();
+    }
+
+    /** The validation messages of this configuration generation. */
+    ValidationReport report() {
+        return report;
+    }
+
+    /** True when root validation reported errors. */
+    boolean hasRootErrors() {
+        return rootErrors;
+    }
+
+    Prefixes prefixes() {
+        return prefixes;
+    }
+
+    List<PreparedElement> elements() {
+        return elements;
+    }
+
+    /** The elements that describe the same resource for every dataset, in element order. */
+    List<PreparedElement> sharedElements() {
+        return sharedElements;
+    }
+
+    /** The elements that are not {@link PreparedElement#shared() shared}, in element order. */
+    List<PreparedElement> datasetElements() {
+        return datasetElements;
+    }
+
+    /**
+     * The first element typed {@code dcat:Dataset} that is not shared; null when there is none.
+     */
+    PreparedElement datasetElement() {
+        return datasetElement;
+    }
+
+    /**
+     * The IRI the dataset element mints from the input, before anything is mapped; null without a
+     * dataset element or when its subject is not an IRI.
+     */
+    Node datasetSubject(JaywayJsonFinder finder) {
+        return datasetElement == null ? null : datasetElement.mapper().subject(finder);
+    }
+
+    /** The IRI typed with the dataset element's type in triples mapped earlier, else null. */
+    Node datasetSubject(TripleBuffer triples) {
+        return datasetElement == null
+                ? null
+                : triples.typedSubject(NodeFactory.createURI(datasetElement.typeIri()));
+    }
+
+    /** True when the IRI is a constant of one of the element plans. */
+    boolean isConstantIri(String iri) {
+        for (PreparedElement element : elements) {
+            if (element.mapper().plan().isConstantIri(iri)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fingerprint of the mapping configuration, used to key cached dataset fragments. Null when
+     * the configuration did not pass validation.
+     */
+    String fingerprint() {
+        return fingerprint;
+    }
+
+    /** The {@link ExportData} sources the element mappers can read. */
+    Set<ExportData.Source> sources() {
+        return sources;
+    }
+}
@@ -0,0 +1,205 @@
+package io.gdcc.spi.export.dcat3;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.GraphMemFactory;
+import org.apache.jena.graph.GraphUtil;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.graph.impl.GraphBase;
+import org.apache.jena.query.TxnType;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.tdb2.DatabaseMgr;
+import org.apache.jena.tdb2.sys.TDBInternal;
+import org.apache.jena.util.iterator.ExtendedIterator;
+
+/**
+ * Working graph of a non-streaming export that moves to disk when it grows large. Triples are kept
+ * in memory until more than {@value #TRIPLES_PROP} triples were added (default 0: never); then
+ * they are copied to a TDB2 database in a new temporary directory under {@value #DIR_PROP}
+ * (default {@code java.io.tmpdir}) and all later triples go there. TDB2 keeps its indexes in
+ * memory-mapped files, so the heap only holds its caches, not the graph.
+ *
+ * <p>The database is used in a single write transaction that is never committed, and is deleted
+ * by {@link #close()}, also after a failed spill. Transactions are bound to a thread: a spilled
+ * graph must be filled, written and closed by the thread that spilled it, which is how the exporter
+ * uses it. When TDB2 is not on the class path the graph always stays in memory.
+ */
+final class SpillingGraph extends GraphBase {
+    static final String TRIPLES_PROP = "dataverse.dcat3.spill.triples";
+    static final String DIR_PROP = "dataverse.dcat3.spill.dir";
+
+    private static final Logger logger = Logger.getLogger(SpillingGraph.class.getCanonicalName());
+
+    private static final boolean TDB2_PRESENT = tdb2Present();
+
+    private final long threshold;
+    private final Path parent;
+    private Graph current = GraphMemFactory.createDefaultGraph();
+    private long added;
+    private Path directory;
+    private DatasetGraph database;
+
+    /**
+     * @param threshold number of added triples above which the graph moves to disk
+     * @param parent directory in which the temporary database directory is created
+     */
+    SpillingGraph(long threshold, Path parent) {
+        this.threshold = threshold;
+        this.parent = parent;
+    }
+
+    /**
+     * A model for the merged graph of an export: a plain in-memory model when spilling is disabled
+     * by the system properties, a model over a {@link SpillingGraph} otherwise. Pass it to {@link
+     * #release(Model)} when done.
+     */
+    static Model createModel() {
+        long threshold = Long.getLong(TRIPLES_PROP, 0);
+        if (threshold <= 0) {
+            return ModelFactory.createDefaultModel();
+        }
+        if (!TDB2_PRESENT) {
+            logger.warning(TRIPLES_PROP + " is set, but TDB2 is not available: not spilling");
+            return ModelFactory.createDefaultModel();
+        }
+        Path parent = Path.of(System.getProperty(DIR_PROP, System.getProperty("java.io.tmpdir")));
+        return ModelFactory.createModelForGraph(new SpillingGraph(threshold, parent));
+    }
+
+    /** True when the model was spilled to disk, and must not be kept beyond the export. */
+    static boolean spilled(Model model) {
+        return model.getGraph() instanceof SpillingGraph graph && graph.spilled();
+    }
+
+    private static boolean tdb2Present() {
+        try {
+            ClassLoader loader = SpillingGraph.class.getClassLoader();
+            Class.forName("org.apache.jena.tdb2.DatabaseMgr", false, loader);
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Delete the on-disk database of a spilled model; in-memory models are left alone, as they may
+     * be cached. A spill that failed halfway already deleted its database.
+     */
+    static void release(Model model) {
+        if (spilled(model)) {
+            model.close();
+        }
+    }
+
+    boolean spilled() {
+        return database != null;
+    }
+
+    @Override
+    public void performAdd(Triple triple) {
+        current.add(triple);
+        added++;
+        if (database == null && added > threshold) {
+            spill();
+        }
+    }
+
+    @Override
+    public void performDelete(Triple triple) {
+        current.delete(triple);
+    }
+
+    @Override
+    protected ExtendedIterator<Triple> graphBaseFind(Triple triple) {
+        return current.find(triple);
+    }
+
+    @Override
+    protected int graphBaseSize() {
+        return current.size();
+    }
+
+    private void spill() {
+        try {
+            Files.createDirectories(parent);
+            directory = Files.createTempDirectory(parent, "dcat3-spill-");
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot create DCAT spill directory in " + parent, e);
+        }
+        logger.info(
+                () ->
+                        "DCAT export graph exceeds "
+                                + threshold
+                                + " triples, moving it to "
+                                + directory);
+        try {
+            database = DatabaseMgr.connectDatasetGraph(directory.toString());
+            database.begin(TxnType.WRITE);
+            Graph disk = database.getDefaultGraph();
+            GraphUtil.addInto(disk, current);
+            current.clear();
+            current = disk;
+        } catch (RuntimeException | Error e) {
+            // the triples are still in memory until the copy completed: drop the database only
+            discardDatabase();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (isClosed()) {
+            return;
+        }
+        super.close();
+        if (database == null) {
+            current.close();
+        }
+        discardDatabase();
+    }
+
+    /** Abort the write transaction, release the database and delete its directory, if any. */
+    private void discardDatabase() {
+        DatasetGraph spilled = database;
+        Path spillDirectory = directory;
+        database = null;
+        directory = null;
+        try {
+            if (spilled != null) {
+                try {
+                    if (spilled.isInTransaction()) {
+                        try {
+                            spilled.abort();
+                        } finally {
+                            spilled.end();
+                        }
+                    }
+                } finally {
+                    TDBInternal.expel(spilled);
+                }
+            }
+        } finally {
+            if (spillDirectory != null) {
+                delete(spillDirectory);
+            }
+        }
+    }
+
+    private static void delete(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            logger.warning("cannot delete DCAT spill directory " + directory + ": " + e);
+        }
+    }
+}
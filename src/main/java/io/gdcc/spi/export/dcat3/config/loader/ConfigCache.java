@@ -0,0 +1,282 @@
+package io.gdcc.spi.export.dcat3.config.loader;
+
+import io.gdcc.spi.export.dcat3.config.model.Element;
+import io.gdcc.spi.export.dcat3.config.model.ResourceConfig;
+import io.gdcc.spi.export.dcat3.config.model.RootConfig;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * Caches the parsed root config and element configs across exports.
+ *
+ * <p>Files are keyed on their resolved path and revalidated by last-modified time and size, so a
+ * configuration is parsed once and reused until one of its files actually changes. Files that come
+ * from the classpath cannot change at runtime and are never reloaded.
+ *
+ * <p>With {@link #WATCH_PROP} set to {@code true}, a daemon thread watches the configuration
+ * directories and the files are only revalidated after a change was reported (hot reload without a
+ * stat per export).
+ */
+public final class ConfigCache {
+    public static final String WATCH_PROP = "dataverse.dcat3.config.watch";
+
+    private static final Logger logger = Logger.getLogger(ConfigCache.class.getCanonicalName());
+
+    /**
+     * One generation of the configuration. A new instance is created whenever a file changed, so
+     * identity can be used to detect a reload.
+     *
+     * @param elementConfigs elementId -> parsed element config, in root element order
+     * @param canonical the mapping properties of all files as sorted text: the root's prefixes,
+     *     elements and relations (not its {@code dcat.*} settings) and every element file; equal
+     *     for equal configurations, whichever JVM loaded them
+     */
+    public record Snapshot(
+            RootConfig root, Map<String, ResourceConfig> elementConfigs, String canonical) {}
+
+    /** Identifies the version of a file on disk; a null path means classpath (immutable). */
+    record FileStamp(Path path, FileTime lastModified, long size) {
+        static FileStamp of(Path path) throws IOException {
+            if (path == null) {
+                return new FileStamp(null, null, -1);
+            }
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return new FileStamp(path, attributes.lastModifiedTime(), attributes.size());
+        }
+
+        boolean isCurrent() {
+            if (path == null) {
+                return true;
+            }
+            try {
+                return equals(of(path));
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+
+    private record CachedElement(FileStamp stamp, ResourceConfig config, String canonical) {}
+
+    private record Loaded(String location, Snapshot snapshot, List<FileStamp> stamps) {
+        boolean isCurrent() {
+            return stamps.stream().allMatch(FileStamp::isCurrent);
+        }
+    }
+
+    private final Map<String, CachedElement> elements = new ConcurrentHashMap<>();
+    private final boolean watch;
+    private volatile Loaded loaded;
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
+    private volatile boolean watching;
+    private WatchService watchService;
+    private final Set<Path> watchedDirs = new HashSet<>();
+
+    public ConfigCache() {
+        this(Boolean.getBoolean(WATCH_PROP));
+    }
+
+    public ConfigCache(boolean watch) {
+        this.watch = watch;
+    }
+
+    /**
+     * Return the configuration for the root location in {@link RootConfigLoader#SYS_PROP},
+     * reloading only the files that changed since the previous call.
+     */
+    public Snapshot get() throws IOException {
+        return get(RootConfigLoader.location());
+    }
+
+    /** Return the configuration for the given root location. */
+    public Snapshot get(String location) throws IOException {
+        Loaded current = loaded;
+        if (current != null && current.location().equals(location) && isCurrent(current)) {
+            return current.snapshot();
+        }
+        synchronized (this) {
+            current = loaded;
+            if (current != null && current.location().equals(location) && isCurrent(current)) {
+                return current.snapshot();
+            }
+            Loaded reloaded = load(location);
+            loaded = reloaded;
+            if (watch) {
+                register(reloaded.stamps());
+            }
+            return reloaded.snapshot();
+        }
+    }
+
+    /** Drop all cached state; the next call reloads every file. */
+    public synchronized void invalidate() {
+        loaded = null;
+        elements.clear();
+    }
+
+    private boolean isCurrent(Loaded current) {
+        if (!watching) {
+            return current.isCurrent();
+        }
+        // reset before the check: events arriving from here on trigger another check
+        if (!dirty.getAndSet(false)) {
+            return true;
+        }
+        if (current.isCurrent()) {
+            return true;
+        }
+        dirty.set(true); // stale until reloaded, also for the re-check under the lock
+        return false;
+    }
+
+    private Loaded load(String location) throws IOException {
+        List<FileStamp> stamps = new ArrayList<>();
+        stamps.add(FileStamp.of(normalize(FileResolver.locate(null, location))));
+        Properties rootProperties = new Properties();
+        RootConfig root = RootConfigLoader.load(location, rootProperties);
+        StringBuilder canonical = new StringBuilder();
+        appendSorted(canonical, rootProperties, true);
+
+        Map<String, ResourceConfig> elementConfigs = new LinkedHashMap<>();
+        for (Element element : root.elements()) {
+            // invalid elements are reported by root validation, not here
+            if (element == null || element.file() == null || element.file().isBlank()) {
+                continue;
+            }
+            CachedElement cached = element(root.baseDir(), element.file());
+            stamps.add(cached.stamp());
+            elementConfigs.put(element.id(), cached.config());
+            canonical.append("[element ").append(escape(element.id())).append("]\n");
+            canonical.append(cached.canonical());
+        }
+        logger.fine("loaded DCAT configuration from " + location);
+        return new Loaded(
+                location,
+                new Snapshot(
+                        root, Collections.unmodifiableMap(elementConfigs), canonical.toString()),
+                Collections.unmodifiableList(stamps));
+    }
+
+    private CachedElement element(Path baseDir, String file) throws IOException {
+        Path path = normalize(FileResolver.locate(baseDir, file));
+        String key = path != null ? path.toString() : "classpath:" + file;
+        CachedElement cached = elements.get(key);
+        if (cached != null && cached.stamp().isCurrent()) {
+            return cached;
+        }
+        FileStamp stamp = FileStamp.of(path);
+        byte[] bytes;
+        try (InputStream in = FileResolver.resolveElementFile(baseDir, file)) {
+            bytes = in.readAllBytes();
+        }
+        Properties properties = new Properties();
+        properties.load(new ByteArrayInputStream(bytes));
+        ResourceConfig config;
+        try {
+            config = new ResourceConfigLoader().load(new ByteArrayInputStream(bytes));
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("cannot parse element configuration " + file, e);
+        }
+        StringBuilder canonical = new StringBuilder();
+        appendSorted(canonical, properties, false);
+        cached = new CachedElement(stamp, config, canonical.toString());
+        elements.put(key, cached);
+        return cached;
+    }
+
+    /**
+     * Append the properties as {@code key=value} lines sorted by key, escaped so that every entry
+     * is one line. Settings under {@code dcat.} are left out of the root: they do not change the
+     * mapped triples.
+     */
+    private static void appendSorted(StringBuilder out, Properties properties, boolean root) {
+        for (String key : new TreeSet<>(properties.stringPropertyNames())) {
+            if (root && key.startsWith("dcat.")) {
+                continue;
+            }
+            out.append(escape(key))
+                    .append('=')
+                    .append(escape(properties.getProperty(key)))
+                    .append('\n');
+        }
+    }
+
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\")
+                .replace("\n", "\\n")
+                .replace("\r", "\\r")
+                .replace("=", "\\=");
+    }
+
+    private static Path normalize(Path path) {
+        return path == null ? null : path.toAbsolutePath().normalize();
+    }
+
+    private void register(List<FileStamp> stamps) {
+        try {
+            if (watchService == null) {
+                watchService = FileSystems.getDefault().newWatchService();
+                Thread watcher = new Thread(this::watchLoop, "dcat3-config-watcher");
+                watcher.setDaemon(true);
+                watcher.start();
+            }
+            for (FileStamp stamp : stamps) {
+                Path dir = stamp.path() == null ? null : stamp.path().getParent();
+                if (dir != null && watchedDirs.add(dir)) {
+                    dir.register(
+                            watchService,
+                            StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_MODIFY,
+                            StandardWatchEventKinds.ENTRY_DELETE);
+                }
+            }
+            watching = true;
+        } catch (IOException e) {
+            logger.warning("cannot watch DCAT configuration, falling back to polling: " + e);
+            watching = false;
+        }
+    }
+
+    private void watchLoop() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                key.pollEvents();
+                dirty.set(true);
+                if (!key.reset()) {
+                    synchronized (this) {
+                        watchedDirs.remove(key.watchable());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // shutting down
+        }
+    }
+}
@@ -27,24 +27,51 @@ public class FileResolver {
      * InputStream and baseDir (null if classpath).
      */
     public static ResolvedFile resolveFile(Path baseDir, String fileName) throws IOException {
+        Path path = locate(baseDir, fileName);
+        if (path != null) {
+            return new ResolvedFile(Files.newInputStream(path), path.getParent());
+        }
+
+        // 4) classpath (baseDir = null)
+        InputStream classPath =
+                Thread.currentThread().getContextClassLoader().getResourceAsStream(fileName);
+        if (classPath != null) {
+            return new ResolvedFile(classPath, null);
+        }
+        classPath = RootConfigLoader.class.getResourceAsStream("/" + fileName);
+        if (classPath != null) {
+            return new ResolvedFile(classPath, null);
+        }
+
+        throw new FileNotFoundException("File not found: " + fileName);
+    }
+
+    /**
+     * Locate a file on the filesystem using the same order as {@link #resolveFile}: absolute →
+     * relative to baseDir → cwd → user.home.
+     *
+     * @return the readable file, or null when the file can only come from the classpath (or does
+     *     not exist)
+     */
+    public static Path locate(Path baseDir, String fileName) {
         // 0) absolute path
         Path absolute = Paths.get(fileName);
         if (Files.isRegularFile(absolute) && Files.isReadable(absolute)) {
-            return new ResolvedFile(Files.newInputStream(absolute), absolute.getParent());
+            return absolute;
         }
 
         // 1) relative to provided baseDir
         if (baseDir != null) {
             Path relative = baseDir.resolve(fileName).normalize();
             if (Files.isRegularFile(relative) && Files.isReadable(relative)) {
-                return new ResolvedFile(Files.newInputStream(relative), relative.getParent());
+                return relative;
             }
         }
 
         // 2) cwd
         Path cwd = Paths.get("").toAbsolutePath().resolve(fileName).normalize();
         if (Files.isRegularFile(cwd) && Files.isReadable(cwd)) {
-            return new ResolvedFile(Files.newInputStream(cwd), cwd.getParent());
+            return cwd;
         }
 
         // 3) user.home
@@ -52,21 +79,9 @@ public class FileResolver {
         if (home != null) {
             Path homePath = Paths.get(home).resolve(fileName).normalize();
             if (Files.isRegularFile(homePath) && Files.isReadable(homePath)) {
-                return new ResolvedFile(Files.newInputStream(homePath), homePath.getParent());
+                return homePath;
             }
         }
-
-        // 4) classpath (baseDir = null)
-        InputStream classPath =
-                Thread.currentThread().getContextClassLoader().getResourceAsStream(fileName);
-        if (classPath != null) {
-            return new ResolvedFile(classPath, null);
-        }
-        classPath = RootConfigLoader.class.getResourceAsStream("/" + fileName);
-        if (classPath != null) {
-            return new ResolvedFile(classPath, null);
-        }
-
-        throw new FileNotFoundException("File not found: " + fileName);
+        return null;
     }
 }
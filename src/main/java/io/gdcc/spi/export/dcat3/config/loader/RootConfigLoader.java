@@ -5,19 +5,27 @@ import static io.gdcc.spi.export.dcat3.config.loader.FileResolver.resolveFile;
 import io.gdcc.spi.export.dcat3.config.model.Element;
 import io.gdcc.spi.export.dcat3.config.model.Relation;
 import io.gdcc.spi.export.dcat3.config.model.RootConfig;
+import io.gdcc.spi.export.dcat3.config.model.TraceConfig;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 public final class RootConfigLoader {
     public static final String SYS_PROP = "dataverse.dcat3.config";
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1000;
+    public static final String DEFAULT_TRACE_FILE = "dcat3-trace.jsonl";
+    public static final long DEFAULT_TRACE_MAX_BYTES = 10L * 1024 * 1024;
+    public static final int DEFAULT_TRACE_MAX_FILES = 5;
     private static final Pattern ELEMENT_ID_PATTERN = Pattern.compile("^element\\.([^.]+)\\.id$");
     private static final Pattern RELATION_PREDICATE_PATTERN =
             Pattern.compile("^relation\\.([^.]+)\\.predicate$");
@@ -32,6 +40,15 @@ public final class RootConfigLoader {
      * @throws IOException when loading fails
      */
     public static RootConfig load() throws IOException {
+        return load(location());
+    }
+
+    /**
+     * The configured location of the root config, as given in the system property.
+     *
+     * @throws IllegalArgumentException when the system property is not set
+     */
+    public static String location() {
         String rootProperty = System.getProperty(SYS_PROP);
         if (rootProperty == null || rootProperty.trim().isEmpty()) {
             throw new IllegalArgumentException(
@@ -39,8 +56,23 @@ public final class RootConfigLoader {
                             + SYS_PROP
                             + "' not set; please provide a path to dcat-root.properties");
         }
-        FileResolver.ResolvedFile resolved = resolveFile(null, rootProperty);
-        Properties properties = new Properties();
+        return rootProperty;
+    }
+
+    /**
+     * Load the root config from the given location, using the fallbacks of {@link FileResolver}.
+     *
+     * @param location path or classpath resource of dcat-root.properties
+     * @return RootConfig
+     * @throws IOException when loading fails
+     */
+    public static RootConfig load(String location) throws IOException {
+        return load(location, new Properties());
+    }
+
+    /** As {@link #load(String)}, reading the raw properties into the given instance. */
+    static RootConfig load(String location, Properties properties) throws IOException {
+        FileResolver.ResolvedFile resolved = resolveFile(null, location);
         try (InputStream closeMe = resolved.in()) {
             properties.load(closeMe);
         }
@@ -50,6 +82,15 @@ public final class RootConfigLoader {
 
     private static RootConfig parse(Properties properties, Path baseDir) {
         boolean trace = Boolean.parseBoolean(properties.getProperty("dcat.trace.enabled", "false"));
+        TraceConfig traceConfig = parseTrace(properties);
+        boolean streaming =
+                Boolean.parseBoolean(properties.getProperty("dcat.output.streaming", "false"));
+        boolean parallel =
+                Boolean.parseBoolean(properties.getProperty("dcat.build.parallel", "false"));
+        int parallelThreshold =
+                parseInt(
+                        properties.getProperty("dcat.build.parallel.threshold"),
+                        DEFAULT_PARALLEL_THRESHOLD);
 
         // prefixes.*
         Map<String, String> prefixes = new LinkedHashMap<>();
@@ -73,7 +114,8 @@ public final class RootConfigLoader {
             elements.add(new Element(id, type, file));
         }
 
-        // relations: relation.<name>.{subject,predicate,object}
+        // relations: relation.<name>.{subject,predicate,object}, optionally
+        // relation.<name>.join or relation.<name>.join.{subject,object}
         List<Relation> relations = new ArrayList<>();
         for (String key : properties.stringPropertyNames()) {
             Matcher matcher = RELATION_PREDICATE_PATTERN.matcher(key);
@@ -84,10 +126,83 @@ public final class RootConfigLoader {
             String subject = properties.getProperty(base + ".subject");
             String predicate = properties.getProperty(base + ".predicate");
             String object = properties.getProperty(base + ".object");
-            Relation relation = new Relation(subject, predicate, object);
+            String join = properties.getProperty(base + ".join");
+            String subjectJoin = properties.getProperty(base + ".join.subject", join);
+            String objectJoin = properties.getProperty(base + ".join.object", join);
+            Relation relation =
+                    new Relation(subject, predicate, object, subjectJoin, objectJoin);
             relations.add(relation);
         }
 
-        return new RootConfig(trace, prefixes, elements, relations, baseDir);
+        return new RootConfig(
+                trace,
+                traceConfig,
+                streaming,
+                parallel,
+                parallelThreshold,
+                prefixes,
+                elements,
+                relations,
+                baseDir);
+    }
+
+    /**
+     * Read the {@code dcat.trace.*} settings. A relative trace file is resolved against {@code
+     * java.io.tmpdir}. Without listed datasets every export is traced by default, with listed
+     * datasets only those are.
+     */
+    private static TraceConfig parseTrace(Properties properties) {
+        String fileName = properties.getProperty("dcat.trace.file", DEFAULT_TRACE_FILE).trim();
+        Path file = Path.of(System.getProperty("java.io.tmpdir")).resolve(fileName);
+        Set<String> datasets =
+                Arrays.stream(properties.getProperty("dcat.trace.datasets", "").split("[,\\s]+"))
+                        .filter(id -> !id.isEmpty())
+                        .collect(Collectors.toUnmodifiableSet());
+        double sampleRate =
+                parseRate(
+                        properties.getProperty("dcat.trace.sample.rate"),
+                        datasets.isEmpty() ? 1 : 0);
+        long maxBytes =
+                parseLong(properties.getProperty("dcat.trace.max.bytes"), DEFAULT_TRACE_MAX_BYTES);
+        int maxFiles =
+                parseInt(properties.getProperty("dcat.trace.max.files"), DEFAULT_TRACE_MAX_FILES);
+        return new TraceConfig(file, sampleRate, datasets, maxBytes, maxFiles);
+    }
+
+    /** Parse a fraction from 0 to 1, falling back to the default when absent or invalid. */
+    private static double parseRate(String value, double defaultValue) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            double rate = Double.parseDouble(value.trim());
+            return Double.isNaN(rate) ? defaultValue : Math.min(1, Math.max(0, rate));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /** Parse a positive number, falling back to the default when absent or invalid. */
+    private static long parseLong(String value, long defaultValue) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Math.max(1, Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /** Parse a positive number, falling back to the default when absent or invalid. */
+    private static int parseInt(String value, int defaultValue) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Math.max(1, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
     }
 }
@@ -1,5 +1,27 @@
 // Relation.java
 package io.gdcc.spi.export.dcat3.config.model;
 
+/**
+ * A relation between the subjects of two elements. Without join paths every subject of the
+ * subject element is linked to every subject of the object element; with join paths only the
+ * subjects whose keys are equal are linked.
+ *
+ * @param subjectJoin JSONPath giving the join key of each subject element scope node, or null
+ * @param objectJoin JSONPath giving the join key of each object element scope node, or null
+ */
 public record Relation(
-        String subjectElementId, String predicateCurieOrIri, String objectElementId) {}
+        String subjectElementId,
+        String predicateCurieOrIri,
+        String objectElementId,
+        String subjectJoin,
+        String objectJoin) {
+
+    public Relation(String subjectElementId, String predicateCurieOrIri, String objectElementId) {
+        this(subjectElementId, predicateCurieOrIri, objectElementId, null, null);
+    }
+
+    /** True when the relation joins subjects on a key instead of linking all pairs. */
+    public boolean keyed() {
+        return subjectJoin != null || objectJoin != null;
+    }
+}
@@ -5,10 +5,20 @@ import java.util.List;
 import java.util.Map;
 
 /**
+ * @param trace write a mapping trace of (sampled) exports
+ * @param traceConfig trace file, sampling and roll-over settings; used when {@code trace} is set
+ * @param streaming write formats that have a streaming writer without building the merged model
+ * @param parallel build the element models concurrently
+ * @param parallelThreshold with {@code parallel}, the number of scope nodes from which the nodes of
+ *     one element are mapped concurrently as well
  * @param baseDir Directory of the root file; used to resolve element files relative to it
  */
 public record RootConfig(
         boolean trace,
+        TraceConfig traceConfig,
+        boolean streaming,
+        boolean parallel,
+        int parallelThreshold,
         Map<String, String> prefixes,
         List<Element> elements,
         List<Relation> relations,
@@ -0,0 +1,26 @@
+package io.gdcc.spi.export.dcat3.config.model;
+
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Where and for which datasets the mapping trace of {@code dcat.trace.enabled} is written.
+ *
+ * @param file the JSON Lines file the trace records are appended to
+ * @param sampleRate fraction of the exports to trace, from 0 to 1
+ * @param datasets persistent ids of datasets that are always traced
+ * @param maxBytes size from which the file is rolled over
+ * @param maxFiles number of files kept, the current one included
+ */
+public record TraceConfig(
+        Path file, double sampleRate, Set<String> datasets, long maxBytes, int maxFiles) {
+
+    /** Whether to trace the export of the given dataset; the id may be null. */
+    public boolean sampled(String persistentId) {
+        if (persistentId != null && datasets.contains(persistentId)) {
+            return true;
+        }
+        return sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+}
@@ -191,8 +191,33 @@ public final class RootConfigValidator implements Validator<RootConfig> {
                                         null));
                     }
                 }
+                if (relation.keyed()) {
+                    validateJoin(out, path + ".subjectJoin", relation.subjectJoin());
+                    validateJoin(out, path + ".objectJoin", relation.objectJoin());
+                }
             }
         }
         return out;
     }
+
+    /** A keyed relation needs a JSONPath join key on both sides. */
+    private static void validateJoin(List<ValidationMessage> out, String path, String join) {
+        if (isBlank(join)) {
+            out.add(
+                    new ValidationMessage(
+                            Severity.ERROR,
+                            "DCATCFG-026",
+                            path,
+                            "Missing join key of keyed relation",
+                            "Set relation.<name>.join, or both join.subject and join.object"));
+        } else if (!safeTrim(join).startsWith("$")) {
+            out.add(
+                    new ValidationMessage(
+                            Severity.ERROR,
+                            "DCATCFG-027",
+                            path,
+                            "Join key is not a JSONPath: " + join,
+                            null));
+        }
+    }
 }
@@ -1,29 +1,51 @@
 package io.gdcc.spi.export.dcat3.config.validate;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
+/**
+ * Immutable result of a validation run. The error flag is computed once, so a report kept for a
+ * configuration generation can be consulted before every export at no cost.
+ */
 public final class ValidationReport {
-    private final List<ValidationMessage> messages = new ArrayList<>();
+    private static final ValidationReport EMPTY = new ValidationReport(List.of());
 
-    public void add(ValidationMessage m) {
-        if (m != null) {
-            messages.add(m);
+    private final List<ValidationMessage> messages;
+    private final boolean errors;
+
+    private ValidationReport(List<ValidationMessage> messages) {
+        this.messages = messages;
+        this.errors = messages.stream().anyMatch(m -> m.severity() == Severity.ERROR);
+    }
+
+    /** A report of the given messages; null messages are dropped. */
+    public static ValidationReport of(List<ValidationMessage> messages) {
+        if (messages == null || messages.isEmpty()) {
+            return EMPTY;
         }
+        return new ValidationReport(messages.stream().filter(Objects::nonNull).toList());
     }
 
-    public void addAll(List<ValidationMessage> ms) {
-        if (ms != null) {
-            messages.addAll(ms);
+    /** A report of the messages of this report followed by those of the other one. */
+    public ValidationReport with(ValidationReport other) {
+        if (other == null || other.messages.isEmpty()) {
+            return this;
+        }
+        if (messages.isEmpty()) {
+            return other;
         }
+        List<ValidationMessage> all = new ArrayList<>(messages.size() + other.messages.size());
+        all.addAll(messages);
+        all.addAll(other.messages);
+        return new ValidationReport(List.copyOf(all));
     }
 
     public List<ValidationMessage> messages() {
-        return Collections.unmodifiableList(messages);
+        return messages;
     }
 
     public boolean hasErrors() {
-        return messages.stream().anyMatch(m -> m.severity() == Severity.ERROR);
+        return errors;
     }
 }
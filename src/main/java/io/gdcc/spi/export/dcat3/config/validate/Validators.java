@@ -2,37 +2,46 @@ package io.gdcc.spi.export.dcat3.config.validate;
 
 import io.gdcc.spi.export.dcat3.config.model.ResourceConfig;
 import io.gdcc.spi.export.dcat3.config.model.RootConfig;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 public final class Validators {
     private Validators() {}
 
     public static ValidationReport validateRoot(RootConfig root) {
-        ValidationReport report = new ValidationReport();
-        report.addAll(new RootConfigValidator().validate(root));
-        return report;
+        return ValidationReport.of(new RootConfigValidator().validate(root));
     }
 
     public static ValidationReport validateResource(
             ResourceConfig rc, Map<String, String> prefixes) {
-        ValidationReport report = new ValidationReport();
-        report.addAll(new ResourceConfigValidator(prefixes).validate(rc));
-        return report;
+        return ValidationReport.of(new ResourceConfigValidator(prefixes).validate(rc));
     }
 
     /**
-     * Validate all resource configs loaded for elements; caller provides a map of
-     * elementId->ResourceConfig
+     * Validate the resource configs loaded for the elements, without validating the root config
+     * itself; caller provides a map of elementId->ResourceConfig
      */
-    public static ValidationReport validateAll(
+    public static ValidationReport validateResources(
             RootConfig root, Map<String, ResourceConfig> elementConfigs) {
-        ValidationReport report = validateRoot(root);
+        if (elementConfigs == null) {
+            return ValidationReport.of(List.of());
+        }
         Map<String, String> prefixes = (root != null) ? root.prefixes() : null;
-        if (elementConfigs != null) {
-            for (Map.Entry<String, ResourceConfig> e : elementConfigs.entrySet()) {
-                report.addAll(new ResourceConfigValidator(prefixes).validate(e.getValue()));
-            }
+        ResourceConfigValidator validator = new ResourceConfigValidator(prefixes);
+        List<ValidationMessage> messages = new ArrayList<>();
+        for (ResourceConfig resourceConfig : elementConfigs.values()) {
+            messages.addAll(validator.validate(resourceConfig));
         }
-        return report;
+        return ValidationReport.of(messages);
+    }
+
+    /**
+     * Validate the root config and all resource configs loaded for elements; caller provides a
+     * map of elementId->ResourceConfig
+     */
+    public static ValidationReport validateAll(
+            RootConfig root, Map<String, ResourceConfig> elementConfigs) {
+        return validateRoot(root).with(validateResources(root, elementConfigs));
     }
 }
@@ -0,0 +1,81 @@
+package io.gdcc.spi.export.dcat3.fragment;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * {@link FragmentStore} keeping one N-Triples file per dataset in a directory. The file is named
+ * after the hash of the persistent id and starts with a comment line holding the version and
+ * configuration fingerprint, so a new version simply overwrites the previous one and the directory
+ * never holds more than one fragment per dataset.
+ */
+public final class FileFragmentStore implements FragmentStore {
+    private static final String HEADER_PREFIX = "# dcat3-fragment ";
+
+    private final Path directory;
+
+    public FileFragmentStore(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    @Override
+    public byte[] get(FragmentKey key) throws IOException {
+        byte[] content;
+        try {
+            content = Files.readAllBytes(file(key));
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        byte[] header = header(key);
+        if (content.length < header.length
+                || !Arrays.equals(content, 0, header.length, header, 0, header.length)) {
+            return null; // another version or configuration
+        }
+        return Arrays.copyOfRange(content, header.length, content.length);
+    }
+
+    @Override
+    public void put(FragmentKey key, byte[] fragment) throws IOException {
+        byte[] header = header(key);
+        byte[] content = Arrays.copyOf(header, header.length + fragment.length);
+        System.arraycopy(fragment, 0, content, header.length, fragment.length);
+
+        Path temp = Files.createTempFile(directory, "fragment", ".tmp");
+        try {
+            Files.write(temp, content);
+            try {
+                Files.move(
+                        temp,
+                        file(key),
+                        StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file(key), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path file(FragmentKey key) {
+        return directory.resolve(FragmentKey.sha256(key.persistentId()) + ".nt");
+    }
+
+    private static byte[] header(FragmentKey key) {
+        String header =
+                HEADER_PREFIX
+                        + key.persistentId()
+                        + " "
+                        + key.version()
+                        + " "
+                        + key.configFingerprint()
+                        + "\n";
+        return header.getBytes(StandardCharsets.UTF_8);
+    }
+}
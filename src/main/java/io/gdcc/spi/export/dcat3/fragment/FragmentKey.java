@@ -0,0 +1,62 @@
+package io.gdcc.spi.export.dcat3.fragment;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Identifies the exported triples of one dataset version under one configuration.
+ *
+ * @param persistentId the dataset's persistent id, e.g. {@code doi:10.5072/FK2/ABC}
+ * @param version version number, state and last update time of the dataset version
+ * @param configFingerprint fingerprint of the mapping configuration
+ */
+public record FragmentKey(String persistentId, String version, String configFingerprint) {
+
+    /**
+     * The key for the given native dataset JSON.
+     *
+     * @return null when the dataset has no persistent id or no version information
+     */
+    public static FragmentKey of(JsonNode datasetJson, String configFingerprint) {
+        if (datasetJson == null || configFingerprint == null) {
+            return null;
+        }
+        JsonNode datasetVersion = datasetJson.path("datasetVersion");
+        String persistentId = text(datasetVersion, "datasetPersistentId");
+        if (persistentId == null) {
+            persistentId = text(datasetJson, "persistentUrl");
+        }
+        String updated = text(datasetVersion, "lastUpdateTime");
+        String number = text(datasetVersion, "versionNumber");
+        if (persistentId == null || (updated == null && number == null)) {
+            return null;
+        }
+        String version =
+                number
+                        + "."
+                        + text(datasetVersion, "versionMinorNumber")
+                        + "/"
+                        + text(datasetVersion, "versionState")
+                        + "/"
+                        + updated;
+        return new FragmentKey(persistentId, version, configFingerprint);
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.path(field);
+        return value.isValueNode() && !value.asText().isBlank() ? value.asText() : null;
+    }
+
+    /** SHA-256 of the text, as lower case hex. */
+    public static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
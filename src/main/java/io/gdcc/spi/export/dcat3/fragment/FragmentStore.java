@@ -0,0 +1,22 @@
+package io.gdcc.spi.export.dcat3.fragment;
+
+import java.io.IOException;
+
+/**
+ * Keeps the exported triples of datasets between catalog exports, so that an unchanged dataset
+ * does not have to be mapped again. A fragment is the N-Triples serialization of the dataset's own
+ * triples: its elements and the relations between them and the shared elements.
+ *
+ * <p>Implementations must be safe for use by one export at a time; a store may drop fragments at
+ * any moment, a missing fragment only costs a new mapping.
+ */
+public interface FragmentStore {
+
+    /**
+     * @return the fragment stored for exactly this key, or null when there is none
+     */
+    byte[] get(FragmentKey key) throws IOException;
+
+    /** Store the fragment, replacing any fragment of an older version of the same dataset. */
+    void put(FragmentKey key, byte[] fragment) throws IOException;
+}
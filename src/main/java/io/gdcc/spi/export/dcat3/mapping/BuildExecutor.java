@@ -0,0 +1,83 @@
+package io.gdcc.spi.export.dcat3.mapping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool for parallel builds, shared by all exporters: the elements of a dataset and the
+ * scope-node partitions of a large element run here. Its size is set with the system property
+ * {@value #THREADS_PROP} (default: the number of processors); the daemon threads are only started
+ * on first use.
+ *
+ * <p>A caller of {@link #invokeAll} runs the tasks no pool thread has started yet itself, and only
+ * waits for tasks that are already running. An element task can therefore hand its partitions to
+ * the same pool without waiting on work queued behind it, and the node never runs more builds than
+ * the pool size plus the exporting threads.
+ */
+public final class BuildExecutor {
+    public static final String THREADS_PROP = "dataverse.dcat3.build.threads";
+
+    private BuildExecutor() {}
+
+    private static final class Pool {
+        private static final int THREADS =
+                Math.max(
+                        1,
+                        Integer.getInteger(
+                                THREADS_PROP, Runtime.getRuntime().availableProcessors()));
+        private static final ExecutorService INSTANCE = create();
+
+        private static ExecutorService create() {
+            AtomicInteger count = new AtomicInteger();
+            return Executors.newFixedThreadPool(
+                    THREADS,
+                    runnable -> {
+                        Thread thread =
+                                new Thread(runnable, "dcat3-build-" + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+    }
+
+    /** The number of pool threads. */
+    public static int threads() {
+        return Pool.THREADS;
+    }
+
+    /**
+     * Run the tasks on the pool, helped by the calling thread, and return their results in task
+     * order. Tasks still running when one failed are cancelled.
+     *
+     * @throws ExecutionException with the failure of the first failed task, in task order
+     */
+    public static <T> List<T> invokeAll(List<? extends Callable<T>> tasks)
+            throws ExecutionException, InterruptedException {
+        List<FutureTask<T>> futures = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            futures.add(new FutureTask<>(task));
+        }
+        try {
+            for (FutureTask<T> future : futures) {
+                Pool.INSTANCE.execute(future);
+            }
+            // a task already started by a pool thread makes run() return at once
+            for (FutureTask<T> future : futures) {
+                future.run();
+            }
+            List<T> results = new ArrayList<>(futures.size());
+            for (FutureTask<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package io.gdcc.spi.export.dcat3.mapping;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.jena.graph.Node;
+
+/**
+ * The subjects of one mapped element, typed with the element type and in the order they were
+ * produced, plus a hash index of the subjects by join key for keyed relations.
+ *
+ * <p>Each join path is evaluated against the scope node the subject was minted from while the
+ * element is mapped, so joining two elements afterwards is a lookup per key instead of a
+ * comparison of every pair. A path matching several values indexes the subject under each of
+ * them. A subject minted again from another scope node may be listed twice under a key.
+ * Instances are filled by a single thread.
+ */
+public final class ElementSubjects {
+    private final Set<Node> subjects = new LinkedHashSet<>();
+    private final Map<String, ValuePath> joinPaths = new LinkedHashMap<>();
+    private final Map<String, Map<String, List<Node>>> byKey = new LinkedHashMap<>();
+
+    /**
+     * @param joinPaths the JSONPaths to index subjects by, as configured ("$$" allowed)
+     */
+    public ElementSubjects(Collection<String> joinPaths) {
+        for (String joinPath : joinPaths) {
+            ValuePath compiled = ValuePath.compile(joinPath);
+            if (compiled != null && !this.joinPaths.containsKey(joinPath)) {
+                this.joinPaths.put(joinPath, compiled);
+                byKey.put(joinPath, new LinkedHashMap<>());
+            }
+        }
+    }
+
+    /** The typed subjects in production order. */
+    public List<Node> list() {
+        return new ArrayList<>(subjects);
+    }
+
+    public boolean isEmpty() {
+        return subjects.isEmpty();
+    }
+
+    /**
+     * The subjects per join key for one of the join paths given at construction.
+     *
+     * @return key to subjects in production order, or null when the path is not indexed
+     */
+    public Map<String, List<Node>> byKey(String joinPath) {
+        Map<String, List<Node>> index = byKey.get(joinPath);
+        return index == null ? null : Collections.unmodifiableMap(index);
+    }
+
+    void add(Node subject) {
+        subjects.add(subject);
+    }
+
+    /** Index the subject minted from the current scope of the finder under its join keys. */
+    void index(JaywayJsonFinder scoped, Node subject) {
+        for (Map.Entry<String, ValuePath> joinPath : joinPaths.entrySet()) {
+            Map<String, List<Node>> index = byKey.get(joinPath.getKey());
+            for (String key : new LinkedHashSet<>(joinPath.getValue().list(scoped))) {
+                index.computeIfAbsent(key, k -> new ArrayList<>(1)).add(subject);
+            }
+        }
+    }
+
+    /** An empty instance indexing the same join paths, e.g. for one partition of the scopes. */
+    ElementSubjects emptyCopy() {
+        return new ElementSubjects(joinPaths.keySet());
+    }
+
+    /** Append the subjects and keys of a later partition. */
+    void addAll(ElementSubjects later) {
+        subjects.addAll(later.subjects);
+        for (Map.Entry<String, Map<String, List<Node>>> index : later.byKey.entrySet()) {
+            Map<String, List<Node>> target = byKey.get(index.getKey());
+            if (target == null) {
+                continue;
+            }
+            index.getValue()
+                    .forEach(
+                            (key, nodes) ->
+                                    target.computeIfAbsent(key, k -> new ArrayList<>(1))
+                                            .addAll(nodes));
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package io.gdcc.spi.export.dcat3.mapping;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A {@code format} template split into segments once, when the mapping plan is compiled.
+ *
+ * <p>Supports the placeholders documented for {@code props.<id>.format}: {@code ${value}}, the
+ * indexed {@code ${1}}, {@code ${2}}, ... (from {@code json.1}, {@code json.2}, ...) and inline
+ * JSONPaths {@code ${$.path}} / {@code ${$$.path}}. Unknown placeholders are kept as-is.
+ */
+public final class FormatTemplate {
+
+    enum Kind {
+        LITERAL,
+        VALUE,
+        PATH
+    }
+
+    record Segment(Kind kind, String text, ValuePath path) {}
+
+    private final List<Segment> segments;
+    private final boolean usesValue;
+
+    private FormatTemplate(List<Segment> segments) {
+        this.segments = segments;
+        this.usesValue = segments.stream().anyMatch(s -> s.kind() == Kind.VALUE);
+    }
+
+    /**
+     * Split a format template into segments.
+     *
+     * @param format the template; null or blank means "no formatting"
+     * @param jsonPaths the ordered {@code json.N} selectors referenced by {@code ${N}}
+     * @return the compiled template, or null when no formatting is requested
+     */
+    public static FormatTemplate compile(String format, List<String> jsonPaths) {
+        return compile(format, jsonPaths, false);
+    }
+
+    /**
+     * Split a template that only knows {@code ${value}}, such as {@code subject.iri.format}; any
+     * other placeholder is kept as-is.
+     *
+     * @return the compiled template, or null when no formatting is requested
+     */
+    public static FormatTemplate compileValue(String format) {
+        return compile(format, List.of(), true);
+    }
+
+    private static FormatTemplate compile(
+            String format, List<String> jsonPaths, boolean valueOnly) {
+        if (format == null || format.isBlank()) {
+            return null;
+        }
+        List<ValuePath> indexed = new ArrayList<>();
+        if (jsonPaths != null) {
+            for (String jsonPath : jsonPaths) {
+                indexed.add(ValuePath.compile(jsonPath));
+            }
+        }
+        List<Segment> segments = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int start = 0;
+        while (true) {
+            int open = format.indexOf("${", start);
+            if (open < 0) {
+                literal.append(format, start, format.length());
+                break;
+            }
+            literal.append(format, start, open);
+            int close = format.indexOf('}', open + 2);
+            if (close < 0) { // malformed, keep rest as literal
+                literal.append(format, open, format.length());
+                break;
+            }
+            String token = format.substring(open + 2, close);
+            int index = indexOf(token);
+            Segment segment;
+            if ("value".equals(token)) {
+                segment = new Segment(Kind.VALUE, null, null);
+            } else if (valueOnly) {
+                segment = null;
+                literal.append(format, open, close + 1);
+            } else if (index > 0 && index <= indexed.size()) {
+                segment = new Segment(Kind.PATH, null, indexed.get(index - 1));
+            } else if (token.startsWith("$")) {
+                segment = new Segment(Kind.PATH, null, ValuePath.compile(token));
+            } else {
+                segment = null; // leave unknown tokens as-is
+                literal.append(format, open, close + 1);
+            }
+            if (segment != null) {
+                flush(literal, segments);
+                segments.add(segment);
+            }
+            start = close + 1;
+        }
+        flush(literal, segments);
+        return new FormatTemplate(Collections.unmodifiableList(segments));
+    }
+
+    /** Parse "1", "2", ... as used by indexed placeholders; -1 when the token is no index. */
+    private static int indexOf(String token) {
+        if (token.isEmpty() || token.length() > 9 || token.charAt(0) == '0') {
+            return -1;
+        }
+        for (int i = 0; i < token.length(); i++) {
+            if (!Character.isDigit(token.charAt(i))) {
+                return -1;
+            }
+        }
+        return Integer.parseInt(token);
+    }
+
+    private static void flush(StringBuilder literal, List<Segment> segments) {
+        if (literal.length() > 0) {
+            segments.add(new Segment(Kind.LITERAL, literal.toString(), null));
+            literal.setLength(0);
+        }
+    }
+
+    /** The JSONPath selectors referenced by placeholders, in template order. */
+    List<ValuePath> paths() {
+        List<ValuePath> paths = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (segment.kind() == Kind.PATH && segment.path() != null) {
+                paths.add(segment.path());
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * Render the template.
+     *
+     * @param value the base value for {@code ${value}}
+     * @param fallback selector used for {@code ${value}} when the base value is null or empty
+     * @param finder finder used to resolve JSONPath placeholders
+     */
+    public String render(String value, ValuePath fallback, JaywayJsonFinder finder) {
+        StringBuilder out = new StringBuilder();
+        renderTo(out, value, fallback, finder);
+        return out.toString();
+    }
+
+    /**
+     * Render the template into a caller-owned builder, which is cleared first. Lets a caller
+     * reuse one builder for all values it formats.
+     *
+     * @return {@code out}
+     */
+    public StringBuilder renderTo(
+            StringBuilder out, String value, ValuePath fallback, JaywayJsonFinder finder) {
+        out.setLength(0);
+        String base = value;
+        if (usesValue && (base == null || base.isEmpty()) && fallback != null) {
+            base = fallback.firstOrEmpty(finder);
+        }
+        for (Segment segment : segments) {
+            switch (segment.kind()) {
+                case LITERAL -> out.append(segment.text());
+                case VALUE -> out.append(base == null ? "" : base);
+                case PATH -> {
+                    if (segment.path() != null) {
+                        out.append(segment.path().firstOrEmpty(finder));
+                    }
+                }
+            }
+        }
+        return out;
+    }
+}
@@ -6,10 +6,10 @@ import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.JsonPathException;
 import com.jayway.jsonpath.Option;
-import com.jayway.jsonpath.ReadContext;
-import com.jayway.jsonpath.TypeRef;
-import com.jayway.jsonpath.spi.json.JacksonJsonProvider;
+import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider;
 import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
+import io.gdcc.spi.export.dcat3.metrics.ExportMetrics;
+import io.gdcc.spi.export.dcat3.trace.ElementTrace;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -19,70 +19,86 @@ import java.util.logging.Logger;
  * JaywayJsonFinder: supports - list(): values from current scope - nodes(): subtree matches from
  * current scope - at(): create a finder scoped to a subtree while preserving original root -
  * listRoot(): values from original document root
+ *
+ * <p>JSONPaths are evaluated directly on the Jackson tree (no serialization to a string and no
+ * conversion into maps), so scoping with at() is O(1) and nodes() returns the matched subtrees
+ * themselves. The trees are only read, never modified. Path strings are compiled through the
+ * shared {@link JsonPathCache}. Every evaluation is counted and timed in the {@link
+ * ExportMetrics}. A finder made with {@link #traced} also records the number of matches of every
+ * path in an {@link ElementTrace}.
  */
 public class JaywayJsonFinder {
     private static final Logger logger =
             Logger.getLogger(JaywayJsonFinder.class.getCanonicalName());
     private static final ObjectMapper MAPPER = new ObjectMapper();
 
-    private final ReadContext ctx; // current scope
-    private final ReadContext originalRootCtx; // original document root
+    private static final Configuration CONFIGURATION =
+            Configuration.builder()
+                    .jsonProvider(new JacksonJsonNodeJsonProvider())
+                    .mappingProvider(new JacksonMappingProvider())
+                    .options(Option.ALWAYS_RETURN_LIST, Option.SUPPRESS_EXCEPTIONS)
+                    .build();
 
-    private static ReadContext createCtx(JsonNode root) {
-        Configuration config =
-                Configuration.builder()
-                        .jsonProvider(new JacksonJsonProvider())
-                        .mappingProvider(new JacksonMappingProvider())
-                        .options(Option.ALWAYS_RETURN_LIST, Option.SUPPRESS_EXCEPTIONS)
-                        .build();
-        return JsonPath.using(config).parse(root.toString());
-    }
+    private final JsonNode scope; // current scope
+    private final JsonNode root; // original document root
+    private final ElementTrace trace; // null when not traced
 
     public JaywayJsonFinder(JsonNode root) {
-        this.ctx = createCtx(root);
-        this.originalRootCtx = this.ctx; // initial root
+        this(root, root, null); // initial root
     }
 
-    private JaywayJsonFinder(ReadContext ctx, ReadContext originalRootCtx) {
-        this.ctx = ctx;
-        this.originalRootCtx = originalRootCtx;
+    private JaywayJsonFinder(JsonNode scope, JsonNode root, ElementTrace trace) {
+        this.scope = scope;
+        this.root = root;
+        this.trace = trace;
     }
 
     /** Execute a JSONPath against the current scope and return stringified values. */
     public List<String> list(String jsonPath) {
-        return listInternal(ctx, jsonPath);
+        return listInternal(scope, jsonPath);
     }
 
     /** Execute a JSONPath against the original document root and return stringified values. */
     public List<String> listRoot(String jsonPath) {
-        return listInternal(originalRootCtx, jsonPath);
+        return listInternal(root, jsonPath);
+    }
+
+    /** Execute a precompiled JSONPath against the current scope. */
+    public List<String> list(JsonPath jsonPath) {
+        return listInternal(scope, jsonPath);
+    }
+
+    /** Execute a precompiled JSONPath against the original document root. */
+    public List<String> listRoot(JsonPath jsonPath) {
+        return listInternal(root, jsonPath);
     }
 
-    private List<String> listInternal(ReadContext context, String jsonPath) {
+    private List<String> listInternal(JsonNode document, String jsonPath) {
         if (jsonPath == null || jsonPath.trim().isEmpty()) {
             logger.warning("jsonPath is null or empty");
             return Collections.emptyList();
         }
-        List<Object> raw;
-        try {
-            raw = context.read(jsonPath, new TypeRef<List<Object>>() {});
-        } catch (JsonPathException ex) {
+        JsonPath compiled = JsonPathCache.shared().get(jsonPath);
+        if (compiled == null) {
             // Invalid or unparsable JsonPath -> behave as "no matches"
             return Collections.emptyList();
         }
-        if (raw == null || raw.isEmpty()) {
+        return listInternal(document, compiled);
+    }
+
+    private List<String> listInternal(JsonNode document, JsonPath jsonPath) {
+        List<JsonNode> matches = read(document, jsonPath);
+        if (matches.isEmpty()) {
             return Collections.emptyList();
         }
-        List<String> out = new ArrayList<>(raw.size());
-        for (Object object : raw) {
-            if (object == null) continue;
-            if (object instanceof CharSequence) {
-                out.add(object.toString());
-            } else if (object instanceof Number || object instanceof Boolean) {
-                out.add(String.valueOf(object));
+        List<String> out = new ArrayList<>(matches.size());
+        for (JsonNode node : matches) {
+            if (node.isNull() || node.isMissingNode()) continue;
+            if (node.isValueNode()) {
+                out.add(node.asText());
             } else {
                 // Complex nodes -> toString()
-                out.add(String.valueOf(object));
+                out.add(node.toString());
             }
         }
         return out;
@@ -93,26 +109,75 @@ public class JaywayJsonFinder {
         if (jsonPath == null || jsonPath.trim().isEmpty()) {
             return Collections.emptyList();
         }
-        List<Object> raw;
+        JsonPath compiled = JsonPathCache.shared().get(jsonPath);
+        if (compiled == null) {
+            return Collections.emptyList();
+        }
+        return nodes(compiled);
+    }
+
+    /** Return matching subtrees for a precompiled JSONPath from the current scope. */
+    public List<JsonNode> nodes(JsonPath jsonPath) {
+        return read(scope, jsonPath);
+    }
+
+    /** Create a finder scoped to the given subtree, preserving the original root for listRoot(). */
+    public JaywayJsonFinder at(JsonNode node) {
+        return new JaywayJsonFinder(node, root, trace);
+    }
+
+    /**
+     * Create a finder on the same scope that records its evaluations, and those of the finders
+     * scoped from it, in the given trace; null for an untraced finder.
+     */
+    public JaywayJsonFinder traced(ElementTrace trace) {
+        return trace == this.trace ? this : new JaywayJsonFinder(scope, root, trace);
+    }
+
+    /** The trace of this finder, null when it is not traced. */
+    public ElementTrace trace() {
+        return trace;
+    }
+
+    private List<JsonNode> read(JsonNode document, JsonPath jsonPath) {
+        List<JsonNode> matches = evaluate(document, jsonPath);
+        if (trace != null) {
+            trace.path(jsonPath.getPath(), matches.size());
+        }
+        return matches;
+    }
+
+    private static List<JsonNode> evaluate(JsonNode document, JsonPath jsonPath) {
+        if (document == null) {
+            return Collections.emptyList();
+        }
+        Object raw;
+        ExportMetrics metrics = ExportMetrics.shared();
+        long start = metrics.start();
         try {
-            raw = ctx.read(jsonPath, new TypeRef<List<Object>>() {});
+            raw = jsonPath.read(document, CONFIGURATION);
         } catch (JsonPathException ex) {
+            // Invalid or unparsable JsonPath -> behave as "no matches"
             return Collections.emptyList();
+        } finally {
+            metrics.recordJsonPath(start);
         }
-        if (raw == null || raw.isEmpty()) {
+        if (raw == null) {
             return Collections.emptyList();
         }
-        List<JsonNode> result = new ArrayList<>(raw.size());
-        for (Object o : raw) {
-            JsonNode node = MAPPER.valueToTree(o);
-            result.add(node);
+        // ALWAYS_RETURN_LIST: the provider returns an ArrayNode holding the matched nodes
+        if (raw instanceof JsonNode node && node.isArray()) {
+            if (node.isEmpty()) {
+                return Collections.emptyList();
+            }
+            List<JsonNode> result = new ArrayList<>(node.size());
+            node.forEach(result::add);
+            return result;
         }
-        return result;
+        return Collections.singletonList(toJsonNode(raw));
     }
 
-    /** Create a finder scoped to the given subtree, preserving the original root for listRoot(). */
-    public JaywayJsonFinder at(JsonNode node) {
-        ReadContext subCtx = createCtx(node);
-        return new JaywayJsonFinder(subCtx, originalRootCtx);
+    private static JsonNode toJsonNode(Object value) {
+        return value instanceof JsonNode node ? node : MAPPER.valueToTree(value);
     }
 }
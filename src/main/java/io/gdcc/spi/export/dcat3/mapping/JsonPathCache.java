@@ -0,0 +1,106 @@
+package io.gdcc.spi.export.dcat3.mapping;
+
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.JsonPathException;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of compiled JSONPaths, owned by the exporter so that its paths do not compete with
+ * other components in Jayway's global cache.
+ *
+ * <p>Keys are the trimmed path strings. Invalid paths are cached as well (as "no path"), so a bad
+ * selector is only parsed once. When the cache is full an arbitrary entry is evicted; the paths
+ * used by the configuration are compiled into the mapping plans anyway, so the cache mainly serves
+ * ad-hoc lookups through the string based {@link JaywayJsonFinder} methods.
+ *
+ * <p>The size of the shared instance can be set with the system property {@value #SIZE_PROP}
+ * (default {@value #DEFAULT_MAX_SIZE}).
+ */
+public final class JsonPathCache {
+    public static final String SIZE_PROP = "dataverse.dcat3.jsonpath.cache.size";
+    public static final int DEFAULT_MAX_SIZE = 512;
+
+    private static final JsonPathCache SHARED =
+            new JsonPathCache(Integer.getInteger(SIZE_PROP, DEFAULT_MAX_SIZE));
+
+    /** Cache counters at one point in time. */
+    public record Stats(long hits, long misses, long evictions, int size) {}
+
+    private final int maxSize;
+    private final ConcurrentMap<String, Optional<JsonPath>> paths = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public JsonPathCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    /** The cache shared by all mapping plans and finders in this JVM. */
+    public static JsonPathCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * @param jsonPath plain JSONPath (no "$$" handling)
+     * @return the compiled path, or null when blank or invalid
+     */
+    public JsonPath get(String jsonPath) {
+        if (jsonPath == null) {
+            return null;
+        }
+        String key = jsonPath.trim();
+        if (key.isEmpty()) {
+            return null;
+        }
+        Optional<JsonPath> cached = paths.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached.orElse(null);
+        }
+        misses.increment();
+        Optional<JsonPath> compiled = compile(key);
+        if (paths.size() >= maxSize) {
+            evictOne();
+        }
+        Optional<JsonPath> previous = paths.putIfAbsent(key, compiled);
+        return (previous != null ? previous : compiled).orElse(null);
+    }
+
+    private static Optional<JsonPath> compile(String jsonPath) {
+        try {
+            return Optional.of(JsonPath.compile(jsonPath));
+        } catch (JsonPathException | IllegalArgumentException ex) {
+            // Invalid or unparsable JsonPath -> behave as "no matches"
+            return Optional.empty();
+        }
+    }
+
+    private void evictOne() {
+        Iterator<String> keys = paths.keySet().iterator();
+        if (keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            evictions.increment();
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), paths.size());
+    }
+
+    /** Drop all entries and reset the counters. */
+    public void clear() {
+        paths.clear();
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+}
@@ -3,10 +3,26 @@ package io.gdcc.spi.export.dcat3.mapping;
 // Prefixes.java
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.impl.PropertyImpl;
+import org.apache.jena.rdf.model.impl.ResourceImpl;
 import org.apache.jena.shared.PrefixMapping;
 
+/**
+ * The configured prefixes. Expansions and the Jena nodes for the expanded IRIs are cached: the
+ * CURIEs come from the configuration, so after the plans are compiled every lookup is a single hash
+ * lookup, and all plans and relations share one {@link Node} per IRI.
+ */
 public class Prefixes {
     private final PrefixMapping pm;
+    private final Map<String, String> expanded = new ConcurrentHashMap<>();
+    private final Map<String, Node> nodes = new ConcurrentHashMap<>();
+    private final Map<String, Property> properties = new ConcurrentHashMap<>();
+    private final Map<String, Resource> resources = new ConcurrentHashMap<>();
 
     public Prefixes(Map<String, String> prefixes) {
         this.pm = PrefixMapping.Factory.create();
@@ -17,12 +33,42 @@ public class Prefixes {
         if (curieOrIri == null) {
             return null;
         }
+        return expanded.computeIfAbsent(curieOrIri, this::expandUncached);
+    }
+
+    private String expandUncached(String curieOrIri) {
         if (curieOrIri.contains(":") && !curieOrIri.startsWith("http")) {
             return pm.expandPrefix(curieOrIri);
         }
         return curieOrIri;
     }
 
+    /** The shared node for an IRI taken as-is (no CURIE expansion). */
+    public Node uri(String iri) {
+        return iri == null ? null : nodes.computeIfAbsent(iri, NodeFactory::createURI);
+    }
+
+    /** The shared node for an expanded CURIE or IRI, null for null. */
+    public Node node(String curieOrIri) {
+        return uri(expand(curieOrIri));
+    }
+
+    /** The shared property for an expanded CURIE or IRI, null for null. */
+    public Property property(String curieOrIri) {
+        String iri = expand(curieOrIri);
+        return iri == null
+                ? null
+                : properties.computeIfAbsent(iri, key -> new PropertyImpl(uri(key), null));
+    }
+
+    /** The shared resource for an expanded CURIE or IRI, null for null. */
+    public Resource resource(String curieOrIri) {
+        String iri = expand(curieOrIri);
+        return iri == null
+                ? null
+                : resources.computeIfAbsent(iri, key -> new ResourceImpl(uri(key), null));
+    }
+
     public PrefixMapping jena() {
         return pm;
     }
@@ -1,150 +1,285 @@
 package io.gdcc.spi.export.dcat3.mapping;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import io.gdcc.spi.export.dcat3.config.model.NodeTemplate;
 import io.gdcc.spi.export.dcat3.config.model.ResourceConfig;
-import io.gdcc.spi.export.dcat3.config.model.ValueSource;
+import io.gdcc.spi.export.dcat3.mapping.ResourcePlan.NodePlan;
+import io.gdcc.spi.export.dcat3.mapping.ResourcePlan.PropertyPlan;
+import io.gdcc.spi.export.dcat3.mapping.ResourcePlan.SubjectPlan;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Objects;
-import java.util.function.Function;
-import java.util.stream.Collectors;
-import org.apache.jena.datatypes.RDFDatatype;
-import org.apache.jena.datatypes.TypeMapper;
-import org.apache.jena.rdf.model.Literal;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
-import org.apache.jena.rdf.model.Property;
-import org.apache.jena.rdf.model.RDFNode;
-import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFLib;
 import org.apache.jena.vocabulary.RDF;
 
+/**
+ * Builds the RDF for one element by executing a precompiled {@link ResourcePlan} against the input
+ * document. A mapper holds no per-export state and can be reused across exports.
+ *
+ * <p>Triples are produced one by one: {@link #emit} hands them straight to a {@link StreamRDF},
+ * such as a streaming writer or a {@link TripleBuffer}, so nothing of the element is kept beyond
+ * the current scope node; {@link #build} collects them in a {@link Model} of their own. Large
+ * scoped elements can be mapped in parallel by {@link #emit(JaywayJsonFinder, StreamRDF, int)}.
+ */
 public class ResourceMapper {
-    private final ResourceConfig resourceConfig;
-    private final Prefixes prefixes;
-    private final String resourceTypeCurieOrIri;
+    private final ResourcePlan plan;
 
     public ResourceMapper(
             ResourceConfig resourceConfig, Prefixes prefixes, String resourceTypeCurieOrIri) {
-        this.resourceConfig = resourceConfig;
-        this.prefixes = prefixes;
-        this.resourceTypeCurieOrIri = resourceTypeCurieOrIri;
+        this(ResourcePlan.compile(resourceConfig, prefixes, resourceTypeCurieOrIri));
+    }
+
+    public ResourceMapper(ResourcePlan plan) {
+        this.plan = plan;
+    }
+
+    public ResourcePlan plan() {
+        return plan;
     }
 
     public Model build(JaywayJsonFinder finder) {
+        return build(finder, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Build the element model, mapping the scope nodes concurrently when there are at least
+     * {@code parallelThreshold} of them.
+     */
+    public Model build(JaywayJsonFinder finder, int parallelThreshold) {
         Model model = ModelFactory.createDefaultModel();
-        model.setNsPrefixes(prefixes.jena());
+        model.setNsPrefixes(plan.prefixes().jena());
+        emit(finder, StreamRDFLib.graph(model.getGraph()), parallelThreshold);
+        return model;
+    }
 
-        List<JsonNode> scopes;
-        if (resourceConfig.scopeJson() != null && !resourceConfig.scopeJson().isBlank()) {
-            scopes = finder.nodes(resourceConfig.scopeJson());
-            if (scopes.isEmpty()) {
-                return model;
+    /**
+     * Send the triples of this element to the given stream. The stream is neither started nor
+     * finished here. Duplicate triples are dropped within one scope node, and for nodes with a
+     * constant IRI across the whole element.
+     *
+     * @return the subjects typed with the element type, in the order they were produced
+     */
+    public List<Node> emit(JaywayJsonFinder finder, StreamRDF out) {
+        return emit(finder, out, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Send the triples of this element to the given stream, mapping the scope nodes concurrently
+     * when there are at least {@code parallelThreshold} of them. The scope nodes are then split
+     * into contiguous partitions that are mapped on the {@link BuildExecutor}, each into its own
+     * {@link TripleBuffer}; the buffers are sent to the stream in scope order. Triples about a
+     * constant IRI are only de-duplicated within a partition.
+     *
+     * @return the subjects typed with the element type, in scope order
+     */
+    public List<Node> emit(JaywayJsonFinder finder, StreamRDF out, int parallelThreshold) {
+        ElementSubjects subjects = new ElementSubjects(List.of());
+        emit(finder, out, parallelThreshold, subjects);
+        return subjects.list();
+    }
+
+    /**
+     * Like {@link #emit(JaywayJsonFinder, StreamRDF, int)}, collecting the typed subjects into the
+     * given instance, which also indexes the subject of every scope node under its join keys.
+     */
+    public void emit(
+            JaywayJsonFinder finder,
+            StreamRDF out,
+            int parallelThreshold,
+            ElementSubjects subjects) {
+        List<JsonNode> scopes = scopes(finder);
+        if (finder.trace() != null) {
+            finder.trace().scopes(scopes.size());
+        }
+        if (scopes.size() < Math.max(2, parallelThreshold)) {
+            Emission emission = new Emission(out, subjects);
+            for (JsonNode scopeNode : scopes) {
+                mapScope(emission, finder, scopeNode);
             }
-        } else {
-            scopes = Collections.singletonList(null);
+            return;
+        }
+        for (Partition partition : mapPartitions(finder, scopes, subjects)) {
+            partition.triples().sendTo(out);
+            subjects.addAll(partition.subjects());
         }
+    }
+
+    /** The scope nodes to map; a single null scope for an unscoped element. */
+    private List<JsonNode> scopes(JaywayJsonFinder finder) {
+        if (!plan.scoped()) {
+            return Collections.singletonList(null);
+        }
+        return plan.scope() == null ? Collections.emptyList() : finder.nodes(plan.scope());
+    }
+
+    private void mapScope(Emission emission, JaywayJsonFinder finder, JsonNode scopeNode) {
+        JaywayJsonFinder scoped = (scopeNode == null) ? finder : finder.at(scopeNode);
+        Node subject = createSubject(emission.text, scoped);
+        emission.subjects.index(scoped, subject);
+        if (plan.type() != null) {
+            emission.triple(subject, RDF.type.asNode(), plan.type().asNode());
+        }
+        for (PropertyPlan property : plan.props()) {
+            addProperty(emission, subject, scoped, property);
+        }
+        emission.endScope();
+    }
 
-        for (JsonNode scopeNode : scopes) {
-            JaywayJsonFinder scoped = (scopeNode == null) ? finder : finder.at(scopeNode);
-            Resource subject = createSubject(model, scoped);
-            if (resourceTypeCurieOrIri != null) {
-                subject.addProperty(
-                        RDF.type, model.createResource(prefixes.expand(resourceTypeCurieOrIri)));
+    /** Map the scope nodes in partitions on the build executor, one triple buffer each. */
+    private List<Partition> mapPartitions(
+            JaywayJsonFinder finder, List<JsonNode> scopes, ElementSubjects subjects) {
+        // a few partitions per worker so uneven scope nodes still balance
+        int partitions = Math.min(scopes.size(), BuildExecutor.threads() * 4);
+        int size = (scopes.size() + partitions - 1) / partitions;
+        List<Callable<Partition>> tasks = new ArrayList<>();
+        for (int from = 0; from < scopes.size(); from += size) {
+            List<JsonNode> partition = scopes.subList(from, Math.min(from + size, scopes.size()));
+            ElementSubjects partitionSubjects = subjects.emptyCopy();
+            tasks.add(
+                    () -> {
+                        TripleBuffer buffer = new TripleBuffer();
+                        Emission emission = new Emission(buffer, partitionSubjects);
+                        for (JsonNode scopeNode : partition) {
+                            mapScope(emission, finder, scopeNode);
+                        }
+                        return new Partition(buffer, emission.subjects);
+                    });
+        }
+        try {
+            return BuildExecutor.invokeAll(tasks);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
             }
-            resourceConfig
-                    .props()
-                    .forEach((id, valueSource) -> addProperty(model, subject, scoped, valueSource));
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while mapping scope nodes", e);
         }
-        return model;
     }
 
-    private Resource createSubject(Model model, JaywayJsonFinder finder) {
-        String iri = resourceConfig.subject().iriConst();
-        if (iri == null && resourceConfig.subject().iriTemplate() != null) {
-            iri = resourceConfig.subject().iriTemplate();
-        }
-        if (iri == null
-                && resourceConfig.subject().iriFormat() != null
-                && resourceConfig.subject().iriJson() != null) {
-            List<String> values = listScopedOrRoot(finder, resourceConfig.subject().iriJson());
-            String value = values.isEmpty() ? null : values.get(0);
+    /**
+     * The subject this element mints from the input, without mapping anything else: the IRI the
+     * typed subject of an unscoped element gets. Null for a scoped element, and when the subject
+     * would be a blank node.
+     */
+    public Node subject(JaywayJsonFinder finder) {
+        if (plan.scoped()) {
+            return null;
+        }
+        Node subject = createSubject(new StringBuilder(), finder);
+        return subject.isURI() ? subject : null;
+    }
+
+    private Node createSubject(StringBuilder text, JaywayJsonFinder finder) {
+        SubjectPlan subject = plan.subject();
+        String iri = subject.iri();
+        if (iri != null && !iri.isBlank()) {
+            return plan.prefixes().uri(iri);
+        }
+        if (iri == null && subject.iriFormat() != null && subject.iriJson() != null) {
+            String value = subject.iriJson().first(finder);
             if (value != null) {
-                iri = resourceConfig.subject().iriFormat().replace("${value}", value);
+                iri = subject.iriFormat().renderTo(text, value, null, finder).toString();
             }
         }
-        if (iri == null && resourceConfig.subject().iriJson() != null) {
-            List<String> values = listScopedOrRoot(finder, resourceConfig.subject().iriJson());
-            iri = values.isEmpty() ? null : values.get(0);
+        if (iri == null && subject.iriJson() != null) {
+            iri = subject.iriJson().first(finder);
         }
-        return (iri == null || iri.isBlank()) ? model.createResource() : model.createResource(iri);
+        return (iri == null || iri.isBlank())
+                ? NodeFactory.createBlankNode()
+                : NodeFactory.createURI(iri);
     }
 
     private void addProperty(
-            Model model, Resource subject, JaywayJsonFinder finder, ValueSource valueSource) {
-        String predicateIri = prefixes.expand(valueSource.predicate());
-        if (predicateIri == null) {
+            Emission emission, Node subject, JaywayJsonFinder finder, PropertyPlan property) {
+        if (property.predicate() == null) {
             return;
         }
-        Property property = model.createProperty(predicateIri);
-        for (RDFNode rdfNode : resolveObjects(model, finder, valueSource)) {
-            subject.addProperty(property, rdfNode);
+        Node predicate = property.predicate().asNode();
+        for (Node object : resolveTraced(emission, finder, property)) {
+            emission.triple(subject, predicate, object);
         }
     }
 
-    private List<RDFNode> resolveObjects(
-            Model model, JaywayJsonFinder finder, ValueSource valueSource) {
-        return switch (valueSource.as()) {
-            case "node-ref" -> Collections.singletonList(buildNodeRef(model, finder, valueSource));
-            case "iri" -> valuesFromSource(finder, valueSource).stream()
-                    .map(applyMapIfAny(valueSource))
-                    .map(applyFormatIfAny(valueSource, finder)) // apply format & placeholders
-                    .filter(Objects::nonNull)
-                    .map(model::createResource)
-                    .collect(Collectors.toList());
-            default -> valuesFromSource(finder, valueSource).stream()
-                    .map(applyMapIfAny(valueSource))
-                    .map(applyFormatIfAny(valueSource, finder)) // apply format & placeholders
-                    .filter(Objects::nonNull)
-                    .map(val -> literal(model, val, valueSource.lang(), valueSource.datatype()))
-                    .collect(Collectors.toList());
-        };
+    /** The objects of a property; a traced finder records a property without any. */
+    private List<Node> resolveTraced(
+            Emission emission, JaywayJsonFinder finder, PropertyPlan property) {
+        List<Node> objects = resolveObjects(emission, finder, property);
+        if (objects.isEmpty() && finder.trace() != null) {
+            finder.trace().emptySource(property.id());
+        }
+        return objects;
+    }
+
+    private List<Node> resolveObjects(
+            Emission emission, JaywayJsonFinder finder, PropertyPlan property) {
+        if (property.as() == ResourcePlan.As.NODE_REF) {
+            return Collections.singletonList(buildNodeRef(emission, finder, property));
+        }
+        List<String> values = valuesFromSource(finder, property);
+        if (values.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Node> out = new ArrayList<>(values.size());
+        for (String value : values) {
+            String mapped = applyMapIfAny(property, value);
+            String formatted = applyFormatIfAny(emission, property, mapped, finder);
+            if (formatted == null) {
+                continue;
+            }
+            out.add(
+                    property.as() == ResourcePlan.As.IRI
+                            ? NodeFactory.createURI(formatted)
+                            : literal(formatted, property));
+        }
+        return out;
     }
 
-    private RDFNode buildNodeRef(Model model, JaywayJsonFinder finder, ValueSource valueSource) {
-        NodeTemplate nodeTemplate = resourceConfig.nodes().get(valueSource.nodeRef());
-        if (nodeTemplate == null) {
-            return model.createResource(); // bnode
-        }
-        Resource resource =
-                "iri".equals(nodeTemplate.kind()) && nodeTemplate.iriConst() != null
-                        ? model.createResource(nodeTemplate.iriConst())
-                        : model.createResource();
-        if (nodeTemplate.type() != null) {
-            resource.addProperty(
-                    RDF.type, model.createResource(prefixes.expand(nodeTemplate.type())));
-        }
-        nodeTemplate
-                .props()
-                .forEach(
-                        (propertyId, propertyValueSource) -> {
-                            Property property =
-                                    model.createProperty(
-                                            prefixes.expand(propertyValueSource.predicate()));
-                            for (RDFNode obj : resolveObjects(model, finder, propertyValueSource)) {
-                                resource.addProperty(property, obj);
-                            }
-                        });
+    private Node buildNodeRef(Emission emission, JaywayJsonFinder finder, PropertyPlan property) {
+        NodePlan node = plan.node(property.nodeRef());
+        if (node == null) {
+            return NodeFactory.createBlankNode();
+        }
+        Node resource =
+                node.iri() != null
+                        ? plan.prefixes().uri(node.iri())
+                        : NodeFactory.createBlankNode();
+        if (node.type() != null) {
+            emission.triple(resource, RDF.type.asNode(), node.type().asNode());
+        }
+        for (PropertyPlan nodeProperty : node.props()) {
+            if (nodeProperty.predicate() == null) {
+                continue;
+            }
+            Node predicate = nodeProperty.predicate().asNode();
+            for (Node obj : resolveTraced(emission, finder, nodeProperty)) {
+                emission.triple(resource, predicate, obj);
+            }
+        }
         return resource;
     }
 
-    private List<String> valuesFromSource(JaywayJsonFinder finder, ValueSource valueSource) {
-        if (valueSource.constValue() != null) {
-            return Collections.singletonList(valueSource.constValue());
+    private List<String> valuesFromSource(JaywayJsonFinder finder, PropertyPlan property) {
+        if (property.constValue() != null) {
+            return Collections.singletonList(property.constValue());
         }
-        if (valueSource.json() != null) {
-            List<String> values = listScopedOrRoot(finder, valueSource.json());
-            if (valueSource.multi()) {
+        if (property.json() != null) {
+            List<String> values = property.json().list(finder);
+            if (property.multi()) {
                 return values;
             }
             return values.isEmpty()
@@ -153,115 +288,83 @@ public class ResourceMapper {
         }
         // If format contains inline JSONPaths or indexed placeholders, ensure we have a single base
         // value
-        if (valueSource.format() != null && !valueSource.format().isBlank()) {
+        if (property.format() != null) {
             return Collections.singletonList("");
         }
         return Collections.emptyList();
     }
 
-    /** If JSONPath starts with "$$", query original root; else, current scope. */
-    private List<String> listScopedOrRoot(JaywayJsonFinder finder, String jsonPath) {
-        if (jsonPath != null && jsonPath.startsWith("$$")) {
-            return finder.listRoot(jsonPath.substring(1)); // strip one '$'
+    private static String applyMapIfAny(PropertyPlan property, String value) {
+        if (value == null) {
+            return null;
         }
-        return finder.list(jsonPath);
+        if (!property.map().isEmpty()) {
+            return property.map().getOrDefault(value, null);
+        }
+        return value;
     }
 
-    private Function<String, String> applyMapIfAny(ValueSource valueSource) {
-        return s -> {
-            if (s == null) {
-                return null;
-            }
-            if (!valueSource.map().isEmpty()) {
-                return valueSource.map().getOrDefault(s, null);
-            }
-            return s;
-        };
+    private static String applyFormatIfAny(
+            Emission emission, PropertyPlan property, String value, JaywayJsonFinder finder) {
+        if (property.format() == null) {
+            return value; // no formatting requested
+        }
+        return property.format()
+                .renderTo(emission.text, value, property.json(), finder)
+                .toString();
     }
 
-    private Function<String, String> applyFormatIfAny(
-            ValueSource valueSource, JaywayJsonFinder finder) {
-        return s -> {
-            if (valueSource.format() == null || valueSource.format().isBlank()) {
-                return s; // no formatting requested
-            }
-            // Start from format template
-            String formatted = valueSource.format();
+    private static Node literal(String value, PropertyPlan property) {
+        if (property.datatype() != null) {
+            return ResourceFactory.createTypedLiteral(value, property.datatype()).asNode();
+        }
+        if (property.lang() != null) {
+            return ResourceFactory.createLangLiteral(value, property.lang()).asNode();
+        }
+        return ResourceFactory.createPlainLiteral(value).asNode();
+    }
 
-            // Legacy ${value}: use current s if provided, else resolve vs.json
-            if (formatted.contains("${value}")) {
-                String base = s;
-                if ((base == null || base.isEmpty()) && valueSource.json() != null) {
-                    List<String> values = listScopedOrRoot(finder, valueSource.json());
-                    base = values.isEmpty() ? "" : values.get(0);
-                }
-                formatted = formatted.replace("${value}", base == null ? "" : base);
-            }
+    /** The triples of one partition, in production order, and its typed subjects. */
+    private record Partition(TripleBuffer triples, ElementSubjects subjects) {}
 
-            // Indexed ${1}, ${2}, ... from vs.jsonPaths
-            if (valueSource.jsonPaths() != null && !valueSource.jsonPaths().isEmpty()) {
-                for (int i = 0; i < valueSource.jsonPaths().size(); i++) {
-                    String path = valueSource.jsonPaths().get(i);
-                    List<String> values = listScopedOrRoot(finder, path);
-                    String value = values.isEmpty() ? "" : values.get(0);
-                    formatted = formatted.replace("${" + (i + 1) + "}", value);
-                }
-            }
+    /**
+     * Per-call state of {@link #emit}: the target stream, duplicate filter, typed subjects and the
+     * text buffer for formatted values.
+     */
+    private final class Emission {
+        private final StreamRDF out;
+        private final Node type;
+        private final Set<Triple> scopeTriples = new HashSet<>();
+        private final Set<Triple> constantTriples = new HashSet<>();
+        private final ElementSubjects subjects;
+        /** Reused for every formatted value; only the resulting string is kept. */
+        private final StringBuilder text = new StringBuilder();
 
-            // Inline JSONPath placeholders: ${$.path} or ${$$.path}
-            formatted = resolveInlineJsonPlaceholders(formatted, finder);
-            return formatted;
-        };
-    }
+        private Emission(StreamRDF out, ElementSubjects subjects) {
+            this.out = out;
+            this.subjects = subjects;
+            this.type = plan.type() == null ? null : plan.type().asNode();
+        }
 
-    private String resolveInlineJsonPlaceholders(String format, JaywayJsonFinder finder) {
-        StringBuilder out = new StringBuilder();
-        int start = 0;
-        while (true) {
-            int open = format.indexOf("${", start);
-            if (open < 0) {
-                out.append(format.substring(start));
-                break;
+        void triple(Node subject, Node predicate, Node object) {
+            Triple triple = Triple.create(subject, predicate, object);
+            // subjects with a constant IRI (shared nodes) repeat in every scope node
+            Set<Triple> seen = isConstant(subject) ? constantTriples : scopeTriples;
+            if (!seen.add(triple)) {
+                return;
             }
-            out.append(format, start, open);
-            int close = format.indexOf("}", open + 2);
-            if (close < 0) { // malformed, append rest
-                out.append(format.substring(open));
-                break;
+            if (type != null && predicate.equals(RDF.type.asNode()) && object.equals(type)) {
+                subjects.add(subject);
             }
-            String token = format.substring(open + 2, close);
-            String replacement;
-            if (token.startsWith("$$")) {
-                List<String> vals = listScopedOrRoot(finder, token); // listScopedOrRoot handles $$
-                replacement = vals.isEmpty() ? "" : vals.get(0);
-            } else if (token.startsWith("$")) {
-                List<String> vals = listScopedOrRoot(finder, token);
-                replacement = vals.isEmpty() ? "" : vals.get(0);
-            } else {
-                // leave unknown tokens as-is (e.g., ${1} handled earlier)
-                replacement = "${" + token + "}";
-            }
-            out.append(replacement);
-            start = close + 1;
+            out.triple(triple);
         }
-        return out.toString();
-    }
 
-    private Literal literal(Model model, String value, String lang, String datatypeIri) {
-        // EXPAND CURIE datatypes to full IRIs before TypeMapper lookup
-        if (datatypeIri != null && !datatypeIri.isBlank() && !datatypeIri.startsWith("http")) {
-            String expanded = prefixes.expand(datatypeIri);
-            if (expanded != null) {
-                datatypeIri = expanded;
-            }
-        }
-        if (datatypeIri != null && !datatypeIri.isBlank()) {
-            RDFDatatype dt = TypeMapper.getInstance().getSafeTypeByName(datatypeIri);
-            return model.createTypedLiteral(value, dt);
+        private boolean isConstant(Node subject) {
+            return subject.isURI() && plan.isConstantIri(subject.getURI());
         }
-        if (lang != null && !lang.isBlank()) {
-            return model.createLiteral(value, lang);
+
+        void endScope() {
+            scopeTriples.clear();
         }
-        return model.createLiteral(value);
     }
 }
@@ -0,0 +1,365 @@
+package io.gdcc.spi.export.dcat3.mapping;
+
+import com.jayway.jsonpath.JsonPath;
+import io.gdcc.spi.export.dcat3.config.model.NodeTemplate;
+import io.gdcc.spi.export.dcat3.config.model.ResourceConfig;
+import io.gdcc.spi.export.dcat3.config.model.Subject;
+import io.gdcc.spi.export.dcat3.config.model.ValueSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.jena.datatypes.RDFDatatype;
+import org.apache.jena.datatypes.TypeMapper;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+
+/**
+ * Immutable, executable form of a {@link ResourceConfig}.
+ *
+ * <p>Compiling resolves everything that does not depend on the input document: predicate and type
+ * CURIEs are expanded to Jena {@link Property}/{@link Resource} objects, JSONPaths are compiled,
+ * format templates are split into segments, the {@code as} value is resolved to an enum and
+ * datatypes are looked up in the {@link TypeMapper}. {@link ResourceMapper} then only executes the
+ * plan per input document.
+ */
+public final class ResourcePlan {
+    private static final Pattern ROOT_FIELD = Pattern.compile("^\\$\\['([^']*)'\\]");
+
+    /** How a property value is emitted; a missing {@code as} is treated as a literal. */
+    public enum As {
+        LITERAL,
+        IRI,
+        NODE_REF;
+
+        static As of(String as) {
+            if ("iri".equals(as)) {
+                return IRI;
+            }
+            if ("node-ref".equals(as)) {
+                return NODE_REF;
+            }
+            return LITERAL;
+        }
+    }
+
+    /**
+     * @param iri constant subject IRI (iri.const, or iri.template used as-is)
+     * @param iriJson selector for the subject value
+     * @param iriFormat optional format to mint an IRI from the selected value ({@code ${value}}
+     *     only)
+     */
+    public record SubjectPlan(String iri, ValuePath iriJson, FormatTemplate iriFormat) {}
+
+    /**
+     * @param id configuration key of the value source, e.g. {@code props.title} or {@code
+     *     nodes.publisher.props.name}
+     * @param predicate expanded predicate, null when none is configured
+     * @param as how to emit the object
+     * @param constValue constant value
+     * @param json single-source selector
+     * @param multi emit all values of {@code json} instead of the first one
+     * @param map mapping table, empty when none is configured
+     * @param format compiled format template, null when none is configured
+     * @param lang language tag for literals, null when none is configured
+     * @param datatype datatype for typed literals, null when none is configured
+     * @param nodeRef node id for {@code as=node-ref}
+     */
+    public record PropertyPlan(
+            String id,
+            Property predicate,
+            As as,
+            String constValue,
+            ValuePath json,
+            boolean multi,
+            Map<String, String> map,
+            FormatTemplate format,
+            String lang,
+            RDFDatatype datatype,
+            String nodeRef) {}
+
+    /**
+     * @param iri constant IRI for {@code kind=iri}; null means blank node
+     * @param type expanded node type, null when none is configured
+     */
+    public record NodePlan(String iri, Resource type, List<PropertyPlan> props) {}
+
+    private final Prefixes prefixes;
+    private final Resource type;
+    private final boolean scoped;
+    private final JsonPath scope;
+    private final SubjectPlan subject;
+    private final List<PropertyPlan> props;
+    private final Map<String, NodePlan> nodes;
+    private final Set<String> constantIris;
+    private final Set<String> rootFields;
+
+    private ResourcePlan(
+            Prefixes prefixes,
+            Resource type,
+            boolean scoped,
+            JsonPath scope,
+            SubjectPlan subject,
+            List<PropertyPlan> props,
+            Map<String, NodePlan> nodes) {
+        this.prefixes = prefixes;
+        this.type = type;
+        this.scoped = scoped;
+        this.scope = scope;
+        this.subject = subject;
+        this.props = props;
+        this.nodes = nodes;
+        Set<String> iris = new HashSet<>();
+        if (subject.iri() != null) {
+            iris.add(subject.iri());
+        }
+        nodes.values().stream().map(NodePlan::iri).filter(Objects::nonNull).forEach(iris::add);
+        this.constantIris = Collections.unmodifiableSet(iris);
+        this.rootFields = collectRootFields();
+    }
+
+    /**
+     * Compile a resource configuration.
+     *
+     * @param resourceConfig the parsed element configuration
+     * @param prefixes prefixes used to expand CURIEs
+     * @param resourceTypeCurieOrIri rdf:type asserted on every subject, may be null
+     */
+    public static ResourcePlan compile(
+            ResourceConfig resourceConfig, Prefixes prefixes, String resourceTypeCurieOrIri) {
+        Resource type = resource(prefixes, resourceTypeCurieOrIri);
+
+        String scopeJson = resourceConfig.scopeJson();
+        boolean scoped = scopeJson != null && !scopeJson.isBlank();
+        JsonPath scope = scoped ? ValuePath.compileJsonPath(scopeJson) : null;
+
+        Subject subjectConfig = resourceConfig.subject();
+        String iri = subjectConfig.iriConst();
+        if (iri == null) {
+            iri = subjectConfig.iriTemplate();
+        }
+        SubjectPlan subject =
+                new SubjectPlan(
+                        iri,
+                        ValuePath.compile(subjectConfig.iriJson()),
+                        FormatTemplate.compileValue(subjectConfig.iriFormat()));
+
+        List<PropertyPlan> props = compileProps(resourceConfig.props(), "props.", prefixes);
+
+        Map<String, NodePlan> nodes = new LinkedHashMap<>();
+        if (resourceConfig.nodes() != null) {
+            resourceConfig
+                    .nodes()
+                    .forEach(
+                            (id, nodeTemplate) ->
+                                    nodes.put(id, compile(id, nodeTemplate, prefixes)));
+        }
+        return new ResourcePlan(
+                prefixes,
+                type,
+                scoped,
+                scope,
+                subject,
+                props,
+                Collections.unmodifiableMap(nodes));
+    }
+
+    private static NodePlan compile(String id, NodeTemplate nodeTemplate, Prefixes prefixes) {
+        String iri = "iri".equals(nodeTemplate.kind()) ? nodeTemplate.iriConst() : null;
+        return new NodePlan(
+                iri,
+                resource(prefixes, nodeTemplate.type()),
+                compileProps(nodeTemplate.props(), "nodes." + id + ".props.", prefixes));
+    }
+
+    /**
+     * @param keyPrefix configuration key prefix of the value sources, for their ids
+     */
+    private static List<PropertyPlan> compileProps(
+            Map<String, ValueSource> valueSources, String keyPrefix, Prefixes prefixes) {
+        if (valueSources == null || valueSources.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<PropertyPlan> out = new ArrayList<>(valueSources.size());
+        for (Map.Entry<String, ValueSource> valueSource : valueSources.entrySet()) {
+            out.add(compile(keyPrefix + valueSource.getKey(), valueSource.getValue(), prefixes));
+        }
+        return Collections.unmodifiableList(out);
+    }
+
+    private static PropertyPlan compile(String id, ValueSource valueSource, Prefixes prefixes) {
+        Property predicate = prefixes.property(valueSource.predicate());
+
+        // EXPAND CURIE datatypes to full IRIs before TypeMapper lookup
+        RDFDatatype datatype = null;
+        String datatypeIri = valueSource.datatype();
+        if (datatypeIri != null && !datatypeIri.isBlank()) {
+            datatypeIri = prefixes.expand(datatypeIri);
+            datatype = TypeMapper.getInstance().getSafeTypeByName(datatypeIri);
+        }
+        String lang = valueSource.lang();
+        if (lang != null && lang.isBlank()) {
+            lang = null;
+        }
+        Map<String, String> map = valueSource.map() == null ? Map.of() : valueSource.map();
+
+        return new PropertyPlan(
+                id,
+                predicate,
+                As.of(valueSource.as()),
+                valueSource.constValue(),
+                ValuePath.compile(valueSource.json()),
+                valueSource.multi(),
+                map,
+                FormatTemplate.compile(valueSource.format(), valueSource.jsonPaths()),
+                lang,
+                datatype,
+                valueSource.nodeRef());
+    }
+
+    /**
+     * Top-level fields read by the selectors of this plan. Scope-relative selectors read inside the
+     * scope nodes, so they are covered by the scope's own field.
+     *
+     * @return the field names, or null when a selector does not start with a named field
+     */
+    private Set<String> collectRootFields() {
+        Set<String> fields = new LinkedHashSet<>();
+        if (scoped) {
+            if (scope == null) {
+                return Collections.emptySet(); // invalid scope: nothing is ever read
+            }
+            if (!addRootField(scope, fields)) {
+                return null;
+            }
+        }
+        List<ValuePath> paths = new ArrayList<>();
+        paths.add(subject.iriJson());
+        collectPaths(props, paths);
+        nodes.values().forEach(node -> collectPaths(node.props(), paths));
+        for (ValuePath path : paths) {
+            if (!addRootField(path, fields)) {
+                return null;
+            }
+        }
+        return Collections.unmodifiableSet(fields);
+    }
+
+    /**
+     * Top-level fields read by selectors evaluated like the selectors of this plan but configured
+     * elsewhere, such as the join keys of keyed relations on this element.
+     *
+     * @param jsonPaths the selectors as configured ("$$" allowed)
+     * @return the field names, or null when a selector does not start with a named field
+     */
+    public Set<String> rootFields(Collection<String> jsonPaths) {
+        Set<String> fields = new LinkedHashSet<>();
+        for (String jsonPath : jsonPaths) {
+            if (!addRootField(ValuePath.compile(jsonPath), fields)) {
+                return null;
+            }
+        }
+        return Collections.unmodifiableSet(fields);
+    }
+
+    /**
+     * Add the top-level field a selector reads; scope-relative selectors of a scoped plan and
+     * invalid selectors read none.
+     *
+     * @return false when the selector does not start with a named field
+     */
+    private boolean addRootField(ValuePath path, Set<String> fields) {
+        if (path == null || path.path() == null || (scoped && !path.fromRoot())) {
+            return true;
+        }
+        return addRootField(path.path(), fields);
+    }
+
+    private static void collectPaths(List<PropertyPlan> props, List<ValuePath> paths) {
+        for (PropertyPlan property : props) {
+            paths.add(property.json());
+            if (property.format() != null) {
+                paths.addAll(property.format().paths());
+            }
+        }
+    }
+
+    /**
+     * Add the first field of a compiled path, whose normalized form starts with {@code $['name']}.
+     *
+     * @return false for paths that do not start with a single named field (deep scans, wildcards)
+     */
+    private static boolean addRootField(JsonPath path, Set<String> fields) {
+        Matcher matcher = ROOT_FIELD.matcher(path.getPath());
+        if (!matcher.find()) {
+            return false;
+        }
+        fields.add(matcher.group(1));
+        return true;
+    }
+
+    private static Resource resource(Prefixes prefixes, String curieOrIri) {
+        return prefixes.resource(curieOrIri);
+    }
+
+    public Prefixes prefixes() {
+        return prefixes;
+    }
+
+    /** rdf:type asserted on every subject, null when the element has no type. */
+    public Resource type() {
+        return type;
+    }
+
+    /** True when the element iterates over {@code scope.json} matches. */
+    public boolean scoped() {
+        return scoped;
+    }
+
+    /** Compiled {@code scope.json}; null when not scoped or when the path is invalid. */
+    public JsonPath scope() {
+        return scope;
+    }
+
+    public SubjectPlan subject() {
+        return subject;
+    }
+
+    public List<PropertyPlan> props() {
+        return props;
+    }
+
+    /**
+     * True when every input maps to the same single subject: the element is not scoped and its
+     * subject IRI is a constant.
+     */
+    public boolean sharedSubject() {
+        return !scoped && subject.iri() != null;
+    }
+
+    /** True when the IRI is a constant of this plan (constant subject or node IRI). */
+    public boolean isConstantIri(String iri) {
+        return constantIris.contains(iri);
+    }
+
+    /**
+     * Top-level fields of the input document (e.g. {@code datasetJson}) this plan can read, or null
+     * when that cannot be determined statically, e.g. for a deep scan like {@code $..title}.
+     */
+    public Set<String> rootFields() {
+        return rootFields;
+    }
+
+    /** Node plan by id, null when the node is not configured. */
+    public NodePlan node(String id) {
+        return id == null ? null : nodes.get(id);
+    }
+}
@@ -0,0 +1,67 @@
+package io.gdcc.spi.export.dcat3.mapping;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.vocabulary.RDF;
+
+/**
+ * Append-only, array-backed sink for the triples of one element. Unlike a {@link
+ * org.apache.jena.rdf.model.Model} it keeps no indexes and no prefix mapping: the triples are
+ * kept in production order until they are added to the merged graph. Duplicates are not removed
+ * here; the graph they are added to drops them.
+ */
+public final class TripleBuffer extends StreamRDFBase {
+    private final List<Triple> triples;
+
+    public TripleBuffer() {
+        this.triples = new ArrayList<>();
+    }
+
+    public TripleBuffer(int expectedSize) {
+        this.triples = new ArrayList<>(expectedSize);
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        triples.add(triple);
+    }
+
+    public int size() {
+        return triples.size();
+    }
+
+    public boolean isEmpty() {
+        return triples.isEmpty();
+    }
+
+    /** The first IRI typed with the given class, in production order; null when there is none. */
+    public Node typedSubject(Node type) {
+        for (Triple triple : triples) {
+            if (triple.getSubject().isURI()
+                    && triple.getPredicate().equals(RDF.type.asNode())
+                    && triple.getObject().equals(type)) {
+                return triple.getSubject();
+            }
+        }
+        return null;
+    }
+
+    /** Add the triples to the graph, in production order. */
+    public void addTo(Graph graph) {
+        for (Triple triple : triples) {
+            graph.add(triple);
+        }
+    }
+
+    /** Send the triples to the stream in production order, without starting or finishing it. */
+    public void sendTo(StreamRDF out) {
+        for (Triple triple : triples) {
+            out.triple(triple);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package io.gdcc.spi.export.dcat3.mapping;
+
+import com.jayway.jsonpath.JsonPath;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * A JSONPath selector compiled once when a mapping plan is built.
+ *
+ * <p>Follows the "$$" convention of the properties files: a path starting with "$$" is evaluated
+ * against the original document root, any other path against the current scope. Blank or invalid
+ * paths compile to a selector that never matches, mirroring how {@link JaywayJsonFinder} treats
+ * them at evaluation time.
+ */
+public final class ValuePath {
+    private static final Logger logger = Logger.getLogger(ValuePath.class.getCanonicalName());
+
+    private final String source;
+    private final JsonPath path; // null -> never matches
+    private final boolean fromRoot;
+
+    private ValuePath(String source, JsonPath path, boolean fromRoot) {
+        this.source = source;
+        this.path = path;
+        this.fromRoot = fromRoot;
+    }
+
+    /**
+     * Compile a configured selector.
+     *
+     * @param jsonPath selector as written in the configuration, may start with "$$"
+     * @return the compiled selector, or null when no selector is configured
+     */
+    public static ValuePath compile(String jsonPath) {
+        if (jsonPath == null) {
+            return null;
+        }
+        boolean fromRoot = jsonPath.startsWith("$$");
+        // strip one '$' once here, so evaluation never builds a new key per call
+        String effective = fromRoot ? jsonPath.substring(1) : jsonPath;
+        return new ValuePath(jsonPath, compileJsonPath(effective), fromRoot);
+    }
+
+    /**
+     * Compile a plain JSONPath (no "$$" handling) through the shared {@link JsonPathCache}.
+     *
+     * @return the compiled path, or null when blank or invalid
+     */
+    static JsonPath compileJsonPath(String jsonPath) {
+        if (jsonPath == null || jsonPath.trim().isEmpty()) {
+            logger.warning("jsonPath is null or empty");
+            return null;
+        }
+        return JsonPathCache.shared().get(jsonPath);
+    }
+
+    /** Evaluate against the scope (or the original root for "$$") of the given finder. */
+    public List<String> list(JaywayJsonFinder finder) {
+        if (path == null) {
+            return Collections.emptyList();
+        }
+        return fromRoot ? finder.listRoot(path) : finder.list(path);
+    }
+
+    /** First matching value, or null when nothing matches. */
+    public String first(JaywayJsonFinder finder) {
+        List<String> values = list(finder);
+        return values.isEmpty() ? null : values.get(0);
+    }
+
+    /** First matching value, or the empty string when nothing matches. */
+    public String firstOrEmpty(JaywayJsonFinder finder) {
+        List<String> values = list(finder);
+        return values.isEmpty() ? "" : values.get(0);
+    }
+
+    /** Compiled path, null when blank or invalid. */
+    JsonPath path() {
+        return path;
+    }
+
+    /** True for "$$" selectors, evaluated against the original document root. */
+    boolean fromRoot() {
+        return fromRoot;
+    }
+
+    /** The selector as written in the configuration. */
+    public String source() {
+        return source;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
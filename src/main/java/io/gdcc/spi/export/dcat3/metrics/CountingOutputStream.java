@@ -0,0 +1,36 @@
+package io.gdcc.spi.export.dcat3.metrics;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/** Passes writes through to the wrapped stream and counts the bytes. Closing it closes nothing. */
+public final class CountingOutputStream extends FilterOutputStream {
+    private long count;
+
+    public CountingOutputStream(OutputStream out) {
+        super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        count += len;
+    }
+
+    /** The caller owns the wrapped stream. */
+    @Override
+    public void close() throws IOException {
+        out.flush();
+    }
+
+    public long count() {
+        return count;
+    }
+}
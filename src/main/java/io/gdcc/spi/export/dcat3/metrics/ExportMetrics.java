@@ -0,0 +1,414 @@
+package io.gdcc.spi.export.dcat3.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+import java.util.logging.Logger;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Counters and timings of the DCAT exports in this JVM: the duration of each export phase and of
+ * each element's mapping, the triples per element, JSONPath evaluations and the bytes written.
+ *
+ * <p>Recording is off unless {@value #ENABLED_PROP}{@code =true}; while it is off nothing is
+ * registered and the JSONPath hot path reads no clock. When enabled, the shared instance is
+ * registered as the MXBean {@value #OBJECT_NAME}, replacing one left behind by an earlier
+ * deployment of the exporter, and {@link #unregister()} removes it again. With {@value
+ * #MICROMETER_PROP}{@code =true} and Micrometer on the class path it is also bound to Micrometer's
+ * global registry; other registries can bind {@link MicrometerMetrics} themselves. Micrometer is
+ * not needed otherwise.
+ */
+public final class ExportMetrics implements ExportMetricsMXBean {
+    public static final String ENABLED_PROP = "dataverse.dcat3.metrics";
+    public static final String MICROMETER_PROP = "dataverse.dcat3.metrics.micrometer";
+    public static final String OBJECT_NAME = "io.gdcc.spi.export.dcat3:type=ExportMetrics";
+
+    private static final Logger logger = Logger.getLogger(ExportMetrics.class.getCanonicalName());
+
+    private static volatile ExportMetrics shared = createShared();
+
+    /** The timed steps of an export. */
+    public enum Phase {
+        /** Loading the configuration, including a re-parse after a change. */
+        CONFIG,
+        /** Validating a changed configuration. */
+        VALIDATION,
+        /** Fetching the input documents from the data provider. */
+        EXPORT_DATA,
+        /** Mapping all elements; see the per-element timings for the split. */
+        BUILD,
+        /** Adding the element triples to the merged graph. */
+        MERGE,
+        /** Applying the root relations. */
+        RELATIONS,
+        /** Writing the output; for streaming formats this includes the mapping. */
+        SERIALIZATION;
+
+        /** Lower-case name, as used for map keys and metric tags. */
+        public String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /** Count, total and maximum duration of one timed activity. */
+    public record Timing(long count, long totalNanos, long maxNanos) {}
+
+    private static final class Timer {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        Timing timing() {
+            return new Timing(count.sum(), totalNanos.sum(), maxNanos.get());
+        }
+
+        void reset() {
+            count.reset();
+            totalNanos.reset();
+            maxNanos.reset();
+        }
+    }
+
+    private final boolean enabled;
+    private final Map<Phase, Timer> phases = new EnumMap<>(Phase.class);
+    private final ConcurrentMap<String, Timer> elements = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> elementTriples = new ConcurrentHashMap<>();
+    private final Timer jsonPath = new Timer();
+    private final LongAdder exports = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder outputBytes = new LongAdder();
+    private final ConcurrentMap<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private final List<Consumer<String>> elementListeners = new CopyOnWriteArrayList<>();
+    private final List<Consumer<String>> gaugeListeners = new CopyOnWriteArrayList<>();
+
+    public ExportMetrics(boolean enabled) {
+        this.enabled = enabled;
+        for (Phase phase : Phase.values()) {
+            phases.put(phase, new Timer());
+        }
+    }
+
+    /** The metrics of all exporters in this JVM. */
+    public static ExportMetrics shared() {
+        return shared;
+    }
+
+    /**
+     * Let the exporters record into the given instance instead of the shared one, which keeps its
+     * registrations; for tests. The gauges move along, as they belong to the exporter's caches.
+     *
+     * @return the instance that was replaced, to be put back afterwards
+     */
+    static synchronized ExportMetrics replaceShared(ExportMetrics metrics) {
+        ExportMetrics previous = shared;
+        previous.gauges.forEach(metrics.gauges::putIfAbsent);
+        shared = metrics;
+        return previous;
+    }
+
+    private static ExportMetrics createShared() {
+        ExportMetrics metrics = new ExportMetrics(Boolean.getBoolean(ENABLED_PROP));
+        if (!metrics.enabled) {
+            return metrics;
+        }
+        try {
+            register(ManagementFactory.getPlatformMBeanServer(), metrics);
+        } catch (JMException | RuntimeException e) {
+            logger.warning("cannot register DCAT export metrics MBean: " + e);
+        }
+        if (Boolean.getBoolean(MICROMETER_PROP)) {
+            if (micrometerPresent()) {
+                MicrometerMetrics.bindGlobal(metrics);
+            } else {
+                logger.warning(MICROMETER_PROP + " is set, but Micrometer is not available");
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Register as {@value #OBJECT_NAME}. An instance that is already registered was left behind by
+     * an earlier deployment (the shared instance is created once per class loader): it is replaced,
+     * so the MBean server no longer keeps the old class loader alive.
+     */
+    static void register(MBeanServer server, ExportMetrics metrics) throws JMException {
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        try {
+            server.registerMBean(metrics, name);
+        } catch (InstanceAlreadyExistsException e) {
+            server.unregisterMBean(name);
+            server.registerMBean(metrics, name);
+        }
+    }
+
+    /**
+     * Remove the shared instance from the platform MBean server, e.g. when the application that
+     * loaded the exporter is undeployed. A no-op when it is not registered, or when the registered
+     * instance belongs to another deployment.
+     */
+    public static void unregister() {
+        try {
+            unregister(ManagementFactory.getPlatformMBeanServer());
+        } catch (JMException | RuntimeException e) {
+            logger.warning("cannot unregister DCAT export metrics MBean: " + e);
+        }
+    }
+
+    static void unregister(MBeanServer server) throws JMException {
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (server.isRegistered(name)
+                && server.getClassLoaderFor(name) == ExportMetrics.class.getClassLoader()) {
+            server.unregisterMBean(name);
+        }
+    }
+
+    private static boolean micrometerPresent() {
+        try {
+            Class.forName(
+                    "io.micrometer.core.instrument.MeterRegistry",
+                    false,
+                    ExportMetrics.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /** Start of a timed step: the current time, or 0 when recording is disabled. */
+    public long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    public void record(Phase phase, long start) {
+        if (enabled) {
+            phases.get(phase).record(System.nanoTime() - start);
+        }
+    }
+
+    /** Record the mapping of one element and the number of triples it produced. */
+    public void recordElement(String elementId, long start, long triples) {
+        if (!enabled || elementId == null) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        Timer timer = elements.get(elementId);
+        if (timer == null) {
+            Timer created = new Timer();
+            timer = elements.putIfAbsent(elementId, created);
+            if (timer == null) {
+                timer = created;
+                elementListeners.forEach(listener -> listener.accept(elementId));
+            }
+        }
+        timer.record(nanos);
+        elementTriples.computeIfAbsent(elementId, id -> new LongAdder()).add(triples);
+    }
+
+    public void recordJsonPath(long start) {
+        if (enabled) {
+            jsonPath.record(System.nanoTime() - start);
+        }
+    }
+
+    /** Count a written export and its size. */
+    public void exported(long bytes) {
+        if (enabled) {
+            exports.increment();
+            outputBytes.add(bytes);
+        }
+    }
+
+    public void failed() {
+        if (enabled) {
+            failures.increment();
+        }
+    }
+
+    /** Expose a value owned elsewhere, e.g. a cache counter, under the given name. */
+    public void gauge(String name, LongSupplier value) {
+        if (gauges.put(name, value) == null) {
+            gaugeListeners.forEach(listener -> listener.accept(name));
+        }
+    }
+
+    /** Called with the name of every gauge registered from now on. */
+    public void onGauge(Consumer<String> listener) {
+        gaugeListeners.add(listener);
+    }
+
+    /** Called with the id of every element that gets timed for the first time. */
+    public void onElement(Consumer<String> listener) {
+        elementListeners.add(listener);
+    }
+
+    public Timing phase(Phase phase) {
+        return phases.get(phase).timing();
+    }
+
+    /** Timing per element id, null for an element that was never mapped. */
+    public Timing element(String elementId) {
+        Timer timer = elements.get(elementId);
+        return timer == null ? null : timer.timing();
+    }
+
+    public long triples(String elementId) {
+        LongAdder triples = elementTriples.get(elementId);
+        return triples == null ? 0 : triples.sum();
+    }
+
+    public List<String> elementIds() {
+        List<String> ids = new ArrayList<>(elements.keySet());
+        Collections.sort(ids);
+        return ids;
+    }
+
+    public Timing jsonPath() {
+        return jsonPath.timing();
+    }
+
+    /** The names of the registered gauges. */
+    public List<String> gaugeNames() {
+        List<String> names = new ArrayList<>(gauges.keySet());
+        Collections.sort(names);
+        return names;
+    }
+
+    /** Current value of a gauge, 0 when there is none or it fails. */
+    public long gaugeValue(String name) {
+        LongSupplier gauge = gauges.get(name);
+        if (gauge == null) {
+            return 0;
+        }
+        try {
+            return gauge.getAsLong();
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public long getExports() {
+        return exports.sum();
+    }
+
+    @Override
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    @Override
+    public long getOutputBytes() {
+        return outputBytes.sum();
+    }
+
+    @Override
+    public Map<String, Long> getPhaseCounts() {
+        return phases(Timing::count);
+    }
+
+    @Override
+    public Map<String, Long> getPhaseTotalMicros() {
+        return phases(timing -> micros(timing.totalNanos()));
+    }
+
+    @Override
+    public Map<String, Long> getPhaseMaxMicros() {
+        return phases(timing -> micros(timing.maxNanos()));
+    }
+
+    @Override
+    public Map<String, Long> getElementBuilds() {
+        return elements(Timing::count);
+    }
+
+    @Override
+    public Map<String, Long> getElementTotalMicros() {
+        return elements(timing -> micros(timing.totalNanos()));
+    }
+
+    @Override
+    public Map<String, Long> getElementTriples() {
+        Map<String, Long> out = new TreeMap<>();
+        elementTriples.forEach((id, triples) -> out.put(id, triples.sum()));
+        return out;
+    }
+
+    @Override
+    public long getJsonPathEvaluations() {
+        return jsonPath.count.sum();
+    }
+
+    @Override
+    public long getJsonPathTotalMicros() {
+        return micros(jsonPath.totalNanos.sum());
+    }
+
+    @Override
+    public long getJsonPathMaxMicros() {
+        return micros(jsonPath.maxNanos.get());
+    }
+
+    @Override
+    public Map<String, Long> getGauges() {
+        Map<String, Long> out = new TreeMap<>();
+        for (String name : gauges.keySet()) {
+            out.put(name, gaugeValue(name));
+        }
+        return out;
+    }
+
+    @Override
+    public void reset() {
+        phases.values().forEach(Timer::reset);
+        elements.values().forEach(Timer::reset);
+        elementTriples.values().forEach(LongAdder::reset);
+        jsonPath.reset();
+        exports.reset();
+        failures.reset();
+        outputBytes.reset();
+    }
+
+    private Map<String, Long> phases(ToLongFunction<Timing> value) {
+        Map<String, Long> out = new TreeMap<>();
+        phases.forEach((phase, timer) -> out.put(phase.tag(), value.applyAsLong(timer.timing())));
+        return out;
+    }
+
+    private Map<String, Long> elements(ToLongFunction<Timing> value) {
+        Map<String, Long> out = new TreeMap<>();
+        elements.forEach((id, timer) -> out.put(id, value.applyAsLong(timer.timing())));
+        return out;
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
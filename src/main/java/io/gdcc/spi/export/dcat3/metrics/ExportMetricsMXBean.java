@@ -0,0 +1,43 @@
+package io.gdcc.spi.export.dcat3.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of the {@link ExportMetrics}, registered as {@value ExportMetrics#OBJECT_NAME}.
+ * Durations are in microseconds; maps are keyed by phase name, element id or gauge name.
+ */
+public interface ExportMetricsMXBean {
+
+    boolean isEnabled();
+
+    /** Exports written, one per dataset and format. */
+    long getExports();
+
+    long getFailures();
+
+    long getOutputBytes();
+
+    Map<String, Long> getPhaseCounts();
+
+    Map<String, Long> getPhaseTotalMicros();
+
+    Map<String, Long> getPhaseMaxMicros();
+
+    Map<String, Long> getElementBuilds();
+
+    Map<String, Long> getElementTotalMicros();
+
+    Map<String, Long> getElementTriples();
+
+    long getJsonPathEvaluations();
+
+    long getJsonPathTotalMicros();
+
+    long getJsonPathMaxMicros();
+
+    /** Current values of the registered gauges, such as the cache counters. */
+    Map<String, Long> getGauges();
+
+    /** Set all counters back to zero; gauges are left alone. */
+    void reset();
+}
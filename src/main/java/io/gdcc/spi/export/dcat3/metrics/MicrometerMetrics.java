@@ -0,0 +1,92 @@
+package io.gdcc.spi.export.dcat3.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binds {@link ExportMetrics} to a Micrometer registry. The meters read the export metrics when
+ * they are published, so nothing is recorded twice. Only load this class when Micrometer is on the
+ * class path; the exporter itself does not depend on it.
+ *
+ * <pre>{@code
+ * new MicrometerMetrics(ExportMetrics.shared()).bindTo(registry);
+ * }</pre>
+ */
+public final class MicrometerMetrics implements MeterBinder {
+    private final ExportMetrics metrics;
+
+    public MicrometerMetrics(ExportMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /** Bind to Micrometer's global composite registry. */
+    static void bindGlobal(ExportMetrics metrics) {
+        new MicrometerMetrics(metrics).bindTo(Metrics.globalRegistry);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("dcat3.exports", metrics, ExportMetrics::getExports)
+                .description("DCAT exports written, one per dataset and format")
+                .register(registry);
+        FunctionCounter.builder("dcat3.export.failures", metrics, ExportMetrics::getFailures)
+                .register(registry);
+        FunctionCounter.builder("dcat3.export.output", metrics, ExportMetrics::getOutputBytes)
+                .baseUnit("bytes")
+                .register(registry);
+        for (ExportMetrics.Phase phase : ExportMetrics.Phase.values()) {
+            FunctionTimer.builder(
+                            "dcat3.export.phase",
+                            metrics,
+                            m -> m.phase(phase).count(),
+                            m -> m.phase(phase).totalNanos(),
+                            TimeUnit.NANOSECONDS)
+                    .tag("phase", phase.tag())
+                    .register(registry);
+        }
+        FunctionTimer.builder(
+                        "dcat3.jsonpath",
+                        metrics,
+                        m -> m.jsonPath().count(),
+                        m -> m.jsonPath().totalNanos(),
+                        TimeUnit.NANOSECONDS)
+                .description("JSONPath evaluations")
+                .register(registry);
+        // gauges and elements may be added later; registering a meter twice is harmless
+        metrics.onGauge(name -> bindGauge(registry, name));
+        metrics.gaugeNames().forEach(name -> bindGauge(registry, name));
+        metrics.onElement(id -> bindElement(registry, id));
+        metrics.elementIds().forEach(id -> bindElement(registry, id));
+    }
+
+    private void bindGauge(MeterRegistry registry, String name) {
+        Gauge.builder("dcat3." + name, metrics, m -> m.gaugeValue(name)).register(registry);
+    }
+
+    private void bindElement(MeterRegistry registry, String elementId) {
+        FunctionTimer.builder(
+                        "dcat3.element.build",
+                        metrics,
+                        m -> count(m.element(elementId)),
+                        m -> totalNanos(m.element(elementId)),
+                        TimeUnit.NANOSECONDS)
+                .tag("element", elementId)
+                .register(registry);
+        FunctionCounter.builder("dcat3.element.triples", metrics, m -> m.triples(elementId))
+                .tag("element", elementId)
+                .register(registry);
+    }
+
+    private static long count(ExportMetrics.Timing timing) {
+        return timing == null ? 0 : timing.count();
+    }
+
+    private static double totalNanos(ExportMetrics.Timing timing) {
+        return timing == null ? 0 : timing.totalNanos();
+    }
+}
@@ -0,0 +1,96 @@
+package io.gdcc.spi.export.dcat3.trace;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * What the mapping of one element did in a traced export: the scope nodes, the matches of every
+ * JSONPath and the value sources that produced no value. Only counters per path and per value
+ * source are kept, so its size depends on the configuration and not on the dataset. Safe for the
+ * concurrent partitions of a parallel build.
+ */
+public final class ElementTrace {
+
+    /** Evaluations of one path; {@code empty} counts those without any match. */
+    private static final class PathCount {
+        private final LongAdder evaluations = new LongAdder();
+        private final LongAdder matches = new LongAdder();
+        private final LongAdder empty = new LongAdder();
+    }
+
+    private final String id;
+    private final ConcurrentMap<String, PathCount> paths = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> emptySources = new ConcurrentHashMap<>();
+    private final LongAdder scopes = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final LongAdder triples = new LongAdder();
+
+    public ElementTrace(String id) {
+        this.id = id;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    /** Record one evaluation of a path, by its normalized form. */
+    public void path(String path, int matches) {
+        PathCount count = paths.computeIfAbsent(path, p -> new PathCount());
+        count.evaluations.increment();
+        count.matches.add(matches);
+        if (matches == 0) {
+            count.empty.increment();
+        }
+    }
+
+    /** Record a scope node for which the value source produced no value. */
+    public void emptySource(String valueSourceId) {
+        emptySources.computeIfAbsent(valueSourceId, v -> new LongAdder()).increment();
+    }
+
+    /** Record the number of scope nodes the element is mapped for. */
+    public void scopes(int count) {
+        scopes.add(count);
+    }
+
+    /** Record the duration and output of mapping the element. */
+    public void built(long nanos, long triples) {
+        this.nanos.add(nanos);
+        this.triples.add(triples);
+    }
+
+    public long triples() {
+        return triples.sum();
+    }
+
+    void writeTo(JsonGenerator json) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("id", id);
+        json.writeNumberField("micros", TimeUnit.NANOSECONDS.toMicros(nanos.sum()));
+        json.writeNumberField("scopes", scopes.sum());
+        json.writeNumberField("triples", triples.sum());
+        json.writeArrayFieldStart("paths");
+        for (Map.Entry<String, PathCount> path : new TreeMap<>(paths).entrySet()) {
+            PathCount count = path.getValue();
+            json.writeStartObject();
+            json.writeStringField("path", path.getKey());
+            json.writeNumberField("evaluations", count.evaluations.sum());
+            json.writeNumberField("matches", count.matches.sum());
+            json.writeNumberField("empty", count.empty.sum());
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+        json.writeObjectFieldStart("emptySources");
+        for (Map.Entry<String, LongAdder> source : new TreeMap<>(emptySources).entrySet()) {
+            json.writeNumberField(source.getKey(), source.getValue().sum());
+        }
+        json.writeEndObject();
+        json.writeEndObject();
+    }
+}
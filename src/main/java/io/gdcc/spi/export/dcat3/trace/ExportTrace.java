@@ -0,0 +1,166 @@
+package io.gdcc.spi.export.dcat3.trace;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.gdcc.spi.export.dcat3.config.model.RootConfig;
+import io.gdcc.spi.export.dcat3.config.model.TraceConfig;
+import io.gdcc.spi.export.dcat3.metrics.ExportMetrics.Phase;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trace record of one dataset export: phase timings and an {@link ElementTrace} per mapped
+ * element. When the export is done the record is appended as one JSON line to the rolling trace
+ * file of the {@link TraceConfig}; a failing trace file never fails the export.
+ */
+public final class ExportTrace {
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final TraceConfig config;
+    private final Instant time;
+    private final long start;
+    private final String dataset;
+    private final List<String> formats;
+    private final Map<Phase, Long> phases = new EnumMap<>(Phase.class);
+    private final Map<String, ElementTrace> elements = new LinkedHashMap<>();
+    private boolean cached;
+    private boolean written;
+
+    ExportTrace(TraceConfig config, long start, String dataset, List<String> formats) {
+        this.config = config;
+        this.time = Instant.now().minusNanos(System.nanoTime() - start);
+        this.start = start;
+        this.dataset = dataset;
+        this.formats = formats;
+    }
+
+    /**
+     * Start the trace of an export whose input was fetched from {@code start} (a {@link
+     * System#nanoTime()}) on; the fetch is recorded as its {@link Phase#EXPORT_DATA} phase.
+     *
+     * @param formats the formats written by the export
+     * @return null when tracing is disabled or the dataset is not sampled
+     */
+    public static ExportTrace start(
+            RootConfig root, JsonNode input, long start, List<String> formats) {
+        if (!root.trace()) {
+            return null;
+        }
+        String dataset = persistentId(input);
+        if (!root.traceConfig().sampled(dataset)) {
+            return null;
+        }
+        ExportTrace trace = new ExportTrace(root.traceConfig(), start, dataset, formats);
+        trace.phase(Phase.EXPORT_DATA, System.nanoTime() - start);
+        return trace;
+    }
+
+    /** The persistent id in the native dataset JSON of the input, null when there is none. */
+    static String persistentId(JsonNode input) {
+        JsonNode datasetJson = input.path("datasetJson");
+        JsonNode id = datasetJson.path("datasetVersion").path("datasetPersistentId");
+        if (!id.isValueNode() || id.asText().isBlank()) {
+            id = datasetJson.path("persistentUrl");
+        }
+        return id.isValueNode() && !id.asText().isBlank() ? id.asText() : null;
+    }
+
+    public String dataset() {
+        return dataset;
+    }
+
+    /** The trace of the given element, created on first use. */
+    public synchronized ElementTrace element(String elementId) {
+        return elements.computeIfAbsent(elementId, ElementTrace::new);
+    }
+
+    public synchronized void phase(Phase phase, long nanos) {
+        phases.merge(phase, nanos, Long::sum);
+    }
+
+    /** Mark the export as written from a cached model, so nothing was mapped. */
+    public synchronized void cached() {
+        cached = true;
+    }
+
+    /**
+     * Complete the trace and append it to the trace file.
+     *
+     * @param bytes size of the output, or -1 when it is not known for this dataset
+     */
+    public void finish(long bytes) {
+        write(bytes, null);
+    }
+
+    /** Complete the trace of a failed export and append it to the trace file. */
+    public void fail(Throwable error) {
+        write(-1, error);
+    }
+
+    private void write(long bytes, Throwable error) {
+        byte[] line;
+        synchronized (this) {
+            if (written) {
+                return;
+            }
+            written = true;
+            line = toJsonLine(bytes, error);
+        }
+        TraceFile.of(config.file()).append(line, config.maxBytes(), config.maxFiles());
+    }
+
+    /** The record as one line of JSON, terminated by a newline. */
+    synchronized byte[] toJsonLine(long bytes, Throwable error) {
+        long nanos = System.nanoTime() - start;
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+        try (JsonGenerator json = JSON.createGenerator(out)) {
+            json.writeStartObject();
+            json.writeStringField("time", time.toString());
+            json.writeStringField("dataset", dataset);
+            json.writeArrayFieldStart("formats");
+            for (String format : formats) {
+                json.writeString(format);
+            }
+            json.writeEndArray();
+            json.writeNumberField("micros", micros(nanos));
+            json.writeBooleanField("cached", cached);
+            long triples = 0;
+            for (ElementTrace element : elements.values()) {
+                triples += element.triples();
+            }
+            json.writeNumberField("triples", triples);
+            if (bytes >= 0) {
+                json.writeNumberField("bytes", bytes);
+            }
+            json.writeObjectFieldStart("phases");
+            for (Map.Entry<Phase, Long> phase : phases.entrySet()) {
+                json.writeNumberField(phase.getKey().tag(), micros(phase.getValue()));
+            }
+            json.writeEndObject();
+            json.writeArrayFieldStart("elements");
+            for (ElementTrace element : elements.values()) {
+                element.writeTo(json);
+            }
+            json.writeEndArray();
+            if (error != null) {
+                json.writeStringField("error", String.valueOf(error));
+            }
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new IllegalStateException("cannot write trace record", e);
+        }
+        out.write('\n');
+        return out.toByteArray();
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
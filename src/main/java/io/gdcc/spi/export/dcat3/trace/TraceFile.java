@@ -0,0 +1,99 @@
+package io.gdcc.spi.export.dcat3.trace;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Logger;
+
+/**
+ * A JSON Lines file that trace records are appended to, one per export. Once appending a record
+ * would make the file exceed its maximum size, it is renamed to {@code <file>.1}, older files move
+ * up to {@code <file>.<maxFiles-1>} and the oldest is deleted. All exporters in the JVM share one
+ * instance per path, so records are never interleaved.
+ */
+final class TraceFile {
+    private static final Logger logger = Logger.getLogger(TraceFile.class.getCanonicalName());
+
+    private static final ConcurrentMap<Path, TraceFile> FILES = new ConcurrentHashMap<>();
+
+    private final Path file;
+    private OutputStream out;
+    private long size;
+    private boolean failed;
+
+    private TraceFile(Path file) {
+        this.file = file;
+    }
+
+    static TraceFile of(Path file) {
+        return FILES.computeIfAbsent(file.toAbsolutePath().normalize(), TraceFile::new);
+    }
+
+    /** Append one record; a failure is logged, once until appending works again. */
+    synchronized void append(byte[] line, long maxBytes, int maxFiles) {
+        try {
+            if (out != null && !Files.exists(file)) {
+                close(); // removed or moved away by someone else
+            }
+            if (out == null) {
+                open();
+            }
+            if (size > 0 && size + line.length > maxBytes) {
+                roll(maxFiles);
+            }
+            out.write(line);
+            out.flush();
+            size += line.length;
+            failed = false;
+        } catch (IOException e) {
+            close();
+            if (!failed) {
+                failed = true;
+                logger.warning("cannot write DCAT trace to " + file + ": " + e);
+            }
+        }
+    }
+
+    private void open() throws IOException {
+        Path dir = file.getParent();
+        if (dir != null) {
+            Files.createDirectories(dir);
+        }
+        out = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        size = Files.size(file);
+    }
+
+    private void roll(int maxFiles) throws IOException {
+        close();
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            Path from = i == 1 ? file : rolled(i - 1);
+            if (Files.exists(from)) {
+                Files.move(from, rolled(i), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.deleteIfExists(file);
+        open();
+    }
+
+    /** The n-th rolled file, {@code <file>.<n>}. */
+    Path rolled(int n) {
+        return file.resolveSibling(file.getFileName() + "." + n);
+    }
+
+    private void close() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            // nothing was lost: every record was flushed
+        }
+        out = null;
+    }
+}
@@ -0,0 +1,53 @@
+package io.gdcc.spi.export.dcat3;
+
+import static io.gdcc.spi.export.util.TestUtil.export;
+import static io.gdcc.spi.export.util.TestUtil.getExportDataProvider;
+import static io.gdcc.spi.export.util.TestUtil.readModel;
+import static io.gdcc.spi.export.util.TestUtil.useApNl30Config;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.gdcc.spi.export.ExportDataProvider;
+import io.gdcc.spi.export.util.RootConfigProperty;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.Lang;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+@ExtendWith(RootConfigProperty.class)
+class Dcat3ExporterBinaryTest {
+
+    @BeforeEach
+    void setUp() {
+        useApNl30Config();
+    }
+
+    @ParameterizedTest(name = "{index} => {0}")
+    @CsvSource({
+        "thrift,dcat3-rdfthrift,application/rdf+thrift",
+        "protobuf,dcat3-rdfprotobuf,application/rdf+protobuf"
+    })
+    void binary_output_round_trips_to_the_turtle_graph(
+            String encoding, String expectedFormatName, String expectedMediaType)
+            throws Exception {
+        ExportDataProvider provider =
+                getExportDataProvider("src/test/resources/input/export_data_source_AP_NL30");
+        Dcat3ExporterBase exporter =
+                encoding.equals("thrift")
+                        ? new Dcat3ExporterRdfThrift()
+                        : new Dcat3ExporterRdfProtobuf();
+        Lang lang = encoding.equals("thrift") ? Lang.RDFTHRIFT : Lang.RDFPROTO;
+
+        assertThat(exporter.getFormatName()).isEqualTo(expectedFormatName);
+        assertThat(exporter.getMediaType()).isEqualTo(expectedMediaType);
+        assertThat(exporter.isHarvestable()).isTrue();
+        assertThat(exporter.isAvailableToUsers()).isFalse();
+
+        Model turtle = readModel(export(new Dcat3ExporterTurtle(), provider), Lang.TURTLE);
+        Model binary = readModel(export(exporter, provider), lang);
+
+        assertThat(binary.size()).isEqualTo(turtle.size());
+        assertThat(binary.isIsomorphicWith(turtle)).isTrue();
+    }
+}
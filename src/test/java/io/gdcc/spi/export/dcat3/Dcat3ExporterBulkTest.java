@@ -0,0 +1,177 @@
+package io.gdcc.spi.export.dcat3;
+
+import static io.gdcc.spi.export.util.TestUtil.export;
+import static io.gdcc.spi.export.util.TestUtil.readModel;
+import static io.gdcc.spi.export.util.TestUtil.useApNl30Config;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import io.gdcc.spi.export.ExportDataProvider;
+import io.gdcc.spi.export.dcat3.fragment.FileFragmentStore;
+import io.gdcc.spi.export.dcat3.fragment.FragmentStore;
+import io.gdcc.spi.export.util.RootConfigProperty;
+import io.gdcc.spi.export.util.SyntheticExportDataProvider;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.vocabulary.DCAT;
+import org.apache.jena.vocabulary.RDF;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+@ExtendWith(RootConfigProperty.class)
+class Dcat3ExporterBulkTest {
+
+    @TempDir Path temp;
+
+    @BeforeEach
+    void setUp() {
+        useApNl30Config();
+    }
+
+    private static List<ExportDataProvider> providers(int count) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(
+                        seed ->
+                                (ExportDataProvider)
+                                        SyntheticExportDataProvider.builder()
+                                                .seed(seed)
+                                                .files(5)
+                                                .build())
+                .toList();
+    }
+
+    private static byte[] exportAll(Dcat3ExporterBase exporter, List<ExportDataProvider> providers)
+            throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.exportDatasets(providers.iterator(), out);
+        return out.toByteArray();
+    }
+
+    private static byte[] exportAll(
+            Dcat3ExporterBase exporter, List<ExportDataProvider> providers, FragmentStore store)
+            throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.exportDatasets(providers.iterator(), out, store);
+        return out.toByteArray();
+    }
+
+    @Test
+    void bulk_export_writes_one_catalog_with_all_datasets() throws Exception {
+        Model model = readModel(exportAll(new Dcat3ExporterTurtle(), providers(3)), Lang.TURTLE);
+
+        List<Resource> catalogs = model.listSubjectsWithProperty(RDF.type, DCAT.Catalog).toList();
+        List<Resource> datasets = model.listSubjectsWithProperty(RDF.type, DCAT.Dataset).toList();
+        assertThat(catalogs).hasSize(1);
+        assertThat(datasets).hasSize(3);
+
+        List<RDFNode> linked = model.listObjectsOfProperty(catalogs.get(0), DCAT.dataset).toList();
+        assertThat(linked).containsExactlyInAnyOrderElementsOf(datasets);
+        for (Resource dataset : datasets) {
+            assertThat(model.listObjectsOfProperty(dataset, DCAT.distribution).toList())
+                    .hasSize(5);
+        }
+        // the catalog is mapped once, so its blank nodes are not repeated per dataset
+        assertThat(model.listObjectsOfProperty(catalogs.get(0), DCAT.contactPoint).toList())
+                .hasSizeLessThanOrEqualTo(1);
+    }
+
+    @Test
+    void bulk_export_of_one_dataset_equals_the_single_export() throws Exception {
+        ExportDataProvider provider = providers(1).get(0);
+
+        Model single = readModel(export(new Dcat3ExporterTurtle(), provider), Lang.TURTLE);
+        Model bulk =
+                readModel(exportAll(new Dcat3ExporterTurtle(), List.of(provider)), Lang.TURTLE);
+
+        assertThat(bulk.isIsomorphicWith(single)).isTrue();
+    }
+
+    @Test
+    void streaming_bulk_export_produces_the_same_graph() throws Exception {
+        List<ExportDataProvider> providers = providers(3);
+
+        Model model = readModel(exportAll(new Dcat3ExporterTurtle(), providers), Lang.TURTLE);
+        Model streamed =
+                readModel(exportAll(new Dcat3ExporterNTriples(), providers), Lang.NTRIPLES);
+
+        assertThat(streamed.size()).isEqualTo(model.size());
+        assertThat(streamed.isIsomorphicWith(model)).isTrue();
+    }
+
+    @Test
+    void nquads_bulk_export_writes_the_catalog_to_the_default_graph() throws Exception {
+        byte[] nquads = exportAll(new Dcat3ExporterNQuads(), providers(3));
+        Dataset quads = DatasetFactory.create();
+        RDFParser.create().source(new ByteArrayInputStream(nquads)).lang(Lang.NQUADS).parse(quads);
+
+        Model defaultGraph = quads.getDefaultModel();
+        assertThat(defaultGraph.listSubjectsWithProperty(RDF.type, DCAT.Catalog).toList())
+                .hasSize(1);
+        List<String> graphs = new ArrayList<>();
+        quads.listModelNames().forEachRemaining(name -> graphs.add(name.getURI()));
+        assertThat(graphs).hasSize(3);
+        for (String graph : graphs) {
+            Model named = quads.getNamedModel(graph);
+            assertThat(named.listSubjectsWithProperty(RDF.type, DCAT.Catalog).toList()).isEmpty();
+            assertThat(named.listSubjectsWithProperty(RDF.type, DCAT.Dataset).toList())
+                    .extracting(Resource::getURI)
+                    .containsExactly(graph);
+        }
+    }
+
+    @Test
+    void incremental_export_reuses_the_fragments_of_unchanged_datasets() throws Exception {
+        FileFragmentStore store = new FileFragmentStore(temp.resolve("fragments"));
+        Model first =
+                readModel(
+                        exportAll(new Dcat3ExporterTurtle(), providers(3), store), Lang.TURTLE);
+
+        List<ExportDataProvider> providers =
+                providers(3).stream().map(provider -> spy(provider)).toList();
+        Model second =
+                readModel(exportAll(new Dcat3ExporterTurtle(), providers, store), Lang.TURTLE);
+
+        assertThat(second.isIsomorphicWith(first)).isTrue();
+        // the first dataset is still mapped for the shared catalog, the others come from the store
+        verify(providers.get(0)).getDatasetFileDetails();
+        verify(providers.get(1), never()).getDatasetFileDetails();
+        verify(providers.get(2), never()).getDatasetFileDetails();
+        // the native JSON read for the fragment key is reused when the dataset is mapped
+        for (ExportDataProvider provider : providers) {
+            verify(provider).getDatasetJson();
+        }
+    }
+
+    @Test
+    void incremental_streaming_export_produces_the_same_graph() throws Exception {
+        FileFragmentStore store = new FileFragmentStore(temp.resolve("fragments"));
+        Model model = readModel(exportAll(new Dcat3ExporterTurtle(), providers(3)), Lang.TURTLE);
+
+        Model filled =
+                readModel(
+                        exportAll(new Dcat3ExporterNTriples(), providers(3), store),
+                        Lang.NTRIPLES);
+        Model cached =
+                readModel(
+                        exportAll(new Dcat3ExporterNTriples(), providers(3), store),
+                        Lang.NTRIPLES);
+
+        assertThat(filled.isIsomorphicWith(model)).isTrue();
+        assertThat(cached.isIsomorphicWith(model)).isTrue();
+    }
+}
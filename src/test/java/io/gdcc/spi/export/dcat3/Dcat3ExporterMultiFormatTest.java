@@ -0,0 +1,64 @@
+package io.gdcc.spi.export.dcat3;
+
+import static io.gdcc.spi.export.util.TestUtil.getExportDataProvider;
+import static io.gdcc.spi.export.util.TestUtil.readModel;
+import static io.gdcc.spi.export.util.TestUtil.useApNl30Config;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import io.gdcc.spi.export.ExportDataProvider;
+import io.gdcc.spi.export.util.RootConfigProperty;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(RootConfigProperty.class)
+class Dcat3ExporterMultiFormatTest {
+
+    @BeforeEach
+    void setUp() {
+        useApNl30Config();
+    }
+
+    @Test
+    void one_build_is_written_in_every_format() throws Exception {
+        ExportDataProvider provider =
+                spy(getExportDataProvider("src/test/resources/input/export_data_source_AP_NL30"));
+        Map<Dcat3ExporterBase, ByteArrayOutputStream> targets = new LinkedHashMap<>();
+        targets.put(new Dcat3ExporterTurtle(), new ByteArrayOutputStream());
+        targets.put(new Dcat3ExporterJsonLd(), new ByteArrayOutputStream());
+        targets.put(new Dcat3ExporterRdfXml(), new ByteArrayOutputStream());
+        targets.put(new Dcat3ExporterNQuads(), new ByteArrayOutputStream());
+
+        Dcat3ExporterBase.exportFormats(provider, targets);
+
+        verify(provider, times(1)).getDatasetJson();
+        byte[][] outputs =
+                targets.values().stream()
+                        .map(ByteArrayOutputStream::toByteArray)
+                        .toArray(byte[][]::new);
+        Model turtle = readModel(outputs[0], Lang.TURTLE);
+        assertThat(turtle.isEmpty()).isFalse();
+        assertThat(readModel(outputs[1], Lang.JSONLD).isIsomorphicWith(turtle)).isTrue();
+        assertThat(readModel(outputs[2], Lang.RDFXML).isIsomorphicWith(turtle)).isTrue();
+
+        Dataset quads = DatasetFactory.create();
+        RDFParser.create()
+                .source(new ByteArrayInputStream(outputs[3]))
+                .lang(Lang.NQUADS)
+                .parse(quads);
+        String datasetIri = provider.getDatasetJson().getString("persistentUrl");
+        assertThat(quads.getNamedModel(datasetIri).isIsomorphicWith(turtle)).isTrue();
+    }
+}
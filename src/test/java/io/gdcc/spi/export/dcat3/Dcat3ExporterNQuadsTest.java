@@ -0,0 +1,101 @@
+package io.gdcc.spi.export.dcat3;
+
+import static io.gdcc.spi.export.util.TestUtil.export;
+import static io.gdcc.spi.export.util.TestUtil.getExportDataProvider;
+import static io.gdcc.spi.export.util.TestUtil.readModel;
+import static io.gdcc.spi.export.util.TestUtil.useApNl30Config;
+import static io.gdcc.spi.export.util.TestUtil.useConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.gdcc.spi.export.ExportDataProvider;
+import io.gdcc.spi.export.util.RootConfigProperty;
+import io.gdcc.spi.export.util.SyntheticExportDataProvider;
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+@ExtendWith(RootConfigProperty.class)
+class Dcat3ExporterNQuadsTest {
+
+    @TempDir Path temp;
+
+    @BeforeEach
+    void setUp() {
+        useApNl30Config();
+    }
+
+    @Test
+    void nquads_put_the_turtle_graph_in_a_graph_named_after_the_dataset() throws Exception {
+        ExportDataProvider provider =
+                getExportDataProvider("src/test/resources/input/export_data_source_AP_NL30");
+        String datasetIri = provider.getDatasetJson().getString("persistentUrl");
+
+        Model turtle = readModel(export(new Dcat3ExporterTurtle(), provider), Lang.TURTLE);
+        Dataset quads = DatasetFactory.create();
+        RDFParser.create()
+                .source(new ByteArrayInputStream(export(new Dcat3ExporterNQuads(), provider)))
+                .lang(Lang.NQUADS)
+                .parse(quads);
+
+        assertThat(quads.getDefaultModel().isEmpty()).isTrue();
+        assertThat(quads.listModelNames()).toIterable().hasSize(1);
+        assertThat(quads.getNamedModel(datasetIri).isIsomorphicWith(turtle)).isTrue();
+    }
+
+    @Test
+    void graph_is_named_after_the_subject_the_dataset_element_mints() throws Exception {
+        Files.writeString(
+                temp.resolve("dcat-dataset.properties"),
+                """
+                subject.iri.json   = $.datasetJson.identifier
+                subject.iri.format = urn:dataset:${value}
+                props.title.predicate = dct:title
+                props.title.as        = literal
+                props.title.json      = $.datasetJson.persistentUrl
+                """);
+        Path root = temp.resolve("dcat-root.properties");
+        Files.writeString(
+                root,
+                """
+                prefix.dcat = http://www.w3.org/ns/dcat#
+                prefix.dct  = http://purl.org/dc/terms/
+
+                element.dataset.id   = dataset
+                element.dataset.type = dcat:Dataset
+                element.dataset.file = dcat-dataset.properties
+                """);
+        useConfig(root);
+        ExportDataProvider provider = SyntheticExportDataProvider.builder().build();
+        String datasetIri = "urn:dataset:" + provider.getDatasetJson().getString("identifier");
+
+        Dataset quads = DatasetFactory.create();
+        RDFParser.create()
+                .source(new ByteArrayInputStream(export(new Dcat3ExporterNQuads(), provider)))
+                .lang(Lang.NQUADS)
+                .parse(quads);
+
+        assertThat(quads.getDefaultModel().isEmpty()).isTrue();
+        assertThat(quads.listModelNames()).toIterable().hasSize(1);
+        assertThat(quads.getNamedModel(datasetIri).size()).isEqualTo(2);
+    }
+
+    @Test
+    void ntriples_produce_the_turtle_graph() throws Exception {
+        ExportDataProvider provider =
+                getExportDataProvider("src/test/resources/input/export_data_source_AP_NL30");
+
+        Model turtle = readModel(export(new Dcat3ExporterTurtle(), provider), Lang.TURTLE);
+        Model ntriples = readModel(export(new Dcat3ExporterNTriples(), provider), Lang.NTRIPLES);
+
+        assertThat(ntriples.isIsomorphicWith(turtle)).isTrue();
+    }
+}
@@ -0,0 +1,165 @@
+package io.gdcc.spi.export.dcat3;
+
+import static io.gdcc.spi.export.util.TestUtil.copyConfig;
+import static io.gdcc.spi.export.util.TestUtil.export;
+import static io.gdcc.spi.export.util.TestUtil.readModel;
+import static io.gdcc.spi.export.util.TestUtil.useConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.gdcc.spi.export.ExportDataProvider;
+import io.gdcc.spi.export.util.RootConfigProperty;
+import io.gdcc.spi.export.util.SyntheticExportDataProvider;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.riot.Lang;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+@ExtendWith(RootConfigProperty.class)
+class Dcat3ExporterRelationTest {
+
+    private static final String SPDX = "http://spdx.org/rdf/terms#";
+    private static final String DISTRIBUTION = "http://localhost:8080/api/access/datafile/";
+
+    @TempDir Path temp;
+
+    /**
+     * The AP-NL 3.0 config plus a checksum element per file, related to the distributions by a
+     * keyed relation on the file id.
+     */
+    private Path config() throws Exception {
+        Path root =
+                copyConfig(
+                        temp,
+                        """
+                        element.checksum.id   = checksum
+                        element.checksum.type = spdx:Checksum
+                        element.checksum.file = dcat-checksum.properties
+
+                        relation.distribution_checksum.subject   = distribution
+                        relation.distribution_checksum.predicate = spdx:checksum
+                        relation.distribution_checksum.object    = checksum
+                        relation.distribution_checksum.join      = $.id
+                        """);
+        Files.writeString(
+                temp.resolve("dcat-checksum.properties"),
+                """
+                scope.json = $.datasetFileDetails[*]
+                subject.iri.json   = $.checksum.value
+                subject.iri.format = urn:checksum:${value}
+                props.value.predicate = spdx:checksumValue
+                props.value.as        = literal
+                props.value.json      = $.checksum.value
+                """);
+        return root;
+    }
+
+    private Model exportModel(Dcat3ExporterBase exporter, Lang lang, ExportDataProvider provider)
+            throws Exception {
+        useConfig(config());
+        return readModel(export(exporter, provider), lang);
+    }
+
+    @Test
+    void keyed_relation_links_each_distribution_to_its_own_checksum() throws Exception {
+        ExportDataProvider provider = SyntheticExportDataProvider.builder().files(50).build();
+
+        Model model = exportModel(new Dcat3ExporterTurtle(), Lang.TURTLE, provider);
+
+        assertKeyedLinks(model, 50);
+    }
+
+    @Test
+    void keyed_relation_in_a_streaming_export() throws Exception {
+        ExportDataProvider provider = SyntheticExportDataProvider.builder().files(40).build();
+
+        Model model = exportModel(new Dcat3ExporterNTriples(), Lang.NTRIPLES, provider);
+
+        assertKeyedLinks(model, 40);
+    }
+
+    @Test
+    void join_key_read_from_a_source_no_mapping_reads() throws Exception {
+        // only the subject join key of the relation reads the schema.org document
+        Files.writeString(
+                temp.resolve("dcat-dataset.properties"),
+                """
+                subject.iri.json = $.datasetJson.persistentUrl
+                props.title.predicate = dct:title
+                props.title.as        = literal
+                props.title.json      = $.datasetJson.identifier
+                """);
+        Files.writeString(
+                temp.resolve("dcat-distribution.properties"),
+                """
+                scope.json = $.datasetFileDetails[*]
+                subject.iri.json   = $.id
+                subject.iri.format = http://localhost:8080/api/access/datafile/${value}
+                props.title.predicate = dct:title
+                props.title.as        = literal
+                props.title.json      = $.filename
+                """);
+        Path root = temp.resolve("dcat-root.properties");
+        Files.writeString(
+                root,
+                """
+                prefix.dcat = http://www.w3.org/ns/dcat#
+                prefix.dct  = http://purl.org/dc/terms/
+
+                element.dataset.id   = dataset
+                element.dataset.type = dcat:Dataset
+                element.dataset.file = dcat-dataset.properties
+
+                element.distribution.id   = distribution
+                element.distribution.type = dcat:Distribution
+                element.distribution.file = dcat-distribution.properties
+
+                relation.dataset_distribution.subject     = dataset
+                relation.dataset_distribution.predicate   = dcat:distribution
+                relation.dataset_distribution.object      = distribution
+                relation.dataset_distribution.join.subject = $.datasetSchemaDotOrg.identifier
+                relation.dataset_distribution.join.object  = $$.datasetJson.persistentUrl
+                """);
+        useConfig(root);
+        ExportDataProvider provider = SyntheticExportDataProvider.builder().files(3).build();
+
+        Model model = readModel(export(new Dcat3ExporterTurtle(), provider), Lang.TURTLE);
+
+        assertThat(Dcat3ExporterBase.prepared().sources())
+                .contains(ExportData.Source.DATASET_SCHEMA_DOT_ORG);
+        Property distribution = model.createProperty("http://www.w3.org/ns/dcat#", "distribution");
+        assertThat(model.listStatements(null, distribution, (Resource) null).toList()).hasSize(3);
+    }
+
+    /** One link per file, from the distribution to the checksum minted from the same file. */
+    private static void assertKeyedLinks(Model model, int files) {
+        Property checksum = model.createProperty(SPDX, "checksum");
+        Property checksumValue = model.createProperty(SPDX, "checksumValue");
+        List<Statement> links =
+                model.listStatements(null, checksum, (Resource) null)
+                        .filterKeep(link -> link.getObject().isURIResource())
+                        .toList();
+
+        assertThat(links).hasSize(files);
+        for (Statement link : links) {
+            Resource target = link.getResource();
+            String value = target.getProperty(checksumValue).getString();
+            assertThat(target.getURI()).isEqualTo("urn:checksum:" + value);
+            // the blank checksum node of the same distribution carries the same value
+            assertThat(
+                            model.listStatements(link.getSubject(), checksum, (Resource) null)
+                                    .filterKeep(s -> s.getObject().isAnon())
+                                    .mapWith(s -> s.getResource().getProperty(checksumValue))
+                                    .mapWith(Statement::getString)
+                                    .toList())
+                    .containsExactly(value);
+            assertThat(link.getSubject().getURI()).startsWith(DISTRIBUTION);
+        }
+    }
+}
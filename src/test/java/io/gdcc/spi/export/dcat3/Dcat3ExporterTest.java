@@ -1,33 +1,49 @@
 package io.gdcc.spi.export.dcat3;
 
+import static io.gdcc.spi.export.util.TestUtil.copyConfig;
+import static io.gdcc.spi.export.util.TestUtil.export;
 import static io.gdcc.spi.export.util.TestUtil.getExportDataProvider;
 import static io.gdcc.spi.export.util.TestUtil.readModel;
 import static io.gdcc.spi.export.util.TestUtil.toValidationReport;
+import static io.gdcc.spi.export.util.TestUtil.useConfig;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import io.gdcc.spi.export.ExportDataProvider;
 import io.gdcc.spi.export.Exporter;
 import io.gdcc.spi.export.dcat3.config.loader.RootConfigLoader;
+import io.gdcc.spi.export.util.RootConfigProperty;
+import io.gdcc.spi.export.util.SyntheticExportDataProvider;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.net.URL;
+import java.nio.file.Path;
 import java.util.Locale;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.shacl.ShaclValidator;
 import org.apache.jena.shacl.ValidationReport;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
+@ExtendWith(RootConfigProperty.class)
 class Dcat3ExporterTest {
 
+    /** Root settings of the reference export: an in-memory model built sequentially. */
+    private static final String REFERENCE =
+            "dcat.output.streaming = false\ndcat.build.parallel = false\n";
+
+    @TempDir Path temp;
+
     @ParameterizedTest(name = "{index} => {0}")
     @CsvSource({
         // formatKey, expectedFormatName,expectedDisplayName,expectedMediaType,jenaLang
         "rdfxml,dcat3-rdfxml,DCAT-3 (RDF/XML),application/rdf+xml,RDFXML",
         "turtle,dcat3-turtle,DCAT-3 (Turtle) ,text/turtle        ,TURTLE",
-        "jsonld,dcat3-jsonld,DCAT-3 (JSON-LD),application/ld+json,JSONLD"
+        "jsonld,dcat3-jsonld,DCAT-3 (JSON-LD),application/ld+json,JSONLD",
+        "ntriples,dcat3-ntriples,DCAT-3 (N-Triples),application/n-triples,NTRIPLES"
     })
     void exportSet1_allFormats(
             String formatKey,
@@ -82,6 +98,36 @@ class Dcat3ExporterTest {
         assertThat(report.conforms()).as(toValidationReport(report)).isTrue();
     }
 
+    @ParameterizedTest(name = "{index} => {0}")
+    @CsvSource(
+            delimiter = '|',
+            value = {
+                // variant    | root settings, separated by ';'
+                "streaming    | dcat.output.streaming = true",
+                "parallel     | dcat.build.parallel = true",
+                // 200 distributions from a threshold of 10: the distribution element is partitioned
+                "partitioned  | dcat.build.parallel = true; dcat.build.parallel.threshold = 10",
+                "all          | dcat.output.streaming = true; dcat.build.parallel = true;"
+                        + " dcat.build.parallel.threshold = 10"
+            })
+    void output_and_build_settings_produce_the_same_graph(String variant, String settings)
+            throws Exception {
+        ExportDataProvider provider = SyntheticExportDataProvider.builder().files(200).build();
+
+        Model reference = exportTurtle("reference", REFERENCE, provider);
+        Model model = exportTurtle(variant, settings.replace(";", "\n") + "\n", provider);
+
+        assertThat(model.size()).isEqualTo(reference.size());
+        assertThat(model.isIsomorphicWith(reference)).isTrue();
+    }
+
+    /** Export Turtle with the AP-NL 3.0 config plus the given root settings. */
+    private Model exportTurtle(String dir, String settings, ExportDataProvider provider)
+            throws Exception {
+        useConfig(copyConfig(temp.resolve(dir), settings));
+        return readModel(export(new Dcat3ExporterTurtle(), provider), Lang.TURTLE);
+    }
+
     /** Simple factory mapping the csv 'formatKey' to an exporter instance. */
     private static Dcat3ExporterBase createExporter(String key) {
         return (Dcat3ExporterBase)
@@ -89,6 +135,7 @@ class Dcat3ExporterTest {
                     case "rdfxml" -> new Dcat3ExporterRdfXml();
                     case "turtle" -> new Dcat3ExporterTurtle();
                     case "jsonld" -> new Dcat3ExporterJsonLd();
+                    case "ntriples" -> new Dcat3ExporterNTriples();
                     default -> throw new IllegalArgumentException("Unknown format key: " + key);
                 };
     }
@@ -99,6 +146,7 @@ class Dcat3ExporterTest {
             case "RDFXML" -> Lang.RDFXML;
             case "TURTLE" -> Lang.TURTLE;
             case "JSONLD" -> Lang.JSONLD;
+            case "NTRIPLES" -> Lang.NTRIPLES;
             default -> throw new IllegalArgumentException("Unsupported Jena Lang: " + name);
         };
     }
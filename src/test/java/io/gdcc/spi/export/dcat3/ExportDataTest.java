@@ -2,8 +2,12 @@ package io.gdcc.spi.export.dcat3;
 
 import static io.gdcc.spi.export.util.TestUtil.getExportDataProvider;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 
 import io.gdcc.spi.export.ExportDataProvider;
+import java.util.EnumSet;
 import org.junit.jupiter.api.Test;
 
 class ExportDataTest {
@@ -41,4 +45,30 @@ class ExportDataTest {
         assertThat(result.datasetFileDetails()).isNotNull();
         assertThat(result.datasetSchemaDotOrg()).isNotNull();
     }
+
+    @Test
+    void testOnlySelectedSourcesAreFetched() {
+
+        // -- prepare
+        ExportDataProvider exportDataProvider =
+                spy(getExportDataProvider("src/test/resources/input/export_data_source_1"));
+        ExportData result =
+                ExportData.builder()
+                        .provider(exportDataProvider)
+                        .sources(
+                                EnumSet.of(
+                                        ExportData.Source.DATASET_JSON,
+                                        ExportData.Source.DATASET_FILE_DETAILS))
+                        .build();
+
+        // -- verify
+        assertThat(result.datasetJson()).isNotNull();
+        assertThat(result.datasetFileDetails()).isNotNull();
+        assertThat(result.dataCiteXml()).isNull();
+        assertThat(result.datasetORE()).isNull();
+        assertThat(result.datasetSchemaDotOrg()).isNull();
+        verify(exportDataProvider, never()).getDataCiteXml();
+        verify(exportDataProvider, never()).getDatasetORE();
+        verify(exportDataProvider, never()).getDatasetSchemaDotOrg();
+    }
 }
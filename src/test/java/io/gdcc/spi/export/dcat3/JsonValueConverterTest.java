@@ -0,0 +1,59 @@
+package io.gdcc.spi.export.dcat3;
+
+import static io.gdcc.spi.export.util.TestUtil.getExportDataProvider;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gdcc.spi.export.ExportDataProvider;
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonReader;
+import java.io.StringReader;
+import org.junit.jupiter.api.Test;
+
+class JsonValueConverterTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static JsonObject jsonObject(String json) {
+        try (JsonReader reader = Json.createReader(new StringReader(json))) {
+            return reader.readObject();
+        }
+    }
+
+    @Test
+    void converts_like_a_string_roundtrip() throws Exception {
+        JsonObject source =
+                jsonObject(
+                        """
+            {"s":"text","i":42,"l":12345678901,"b":123456789012345678901234567890,
+             "d":1.5,"e":1e3,"t":true,"f":false,"n":null,
+             "a":[1,"two",{"three":3}],"o":{"nested":[]}}
+            """);
+
+        JsonNode converted = JsonValueConverter.toJsonNode(source);
+
+        assertThat(converted).isEqualTo(MAPPER.readTree(source.toString()));
+        assertThat(converted.get("i").isInt()).isTrue();
+        assertThat(converted.get("l").isLong()).isTrue();
+        assertThat(converted.get("b").isBigInteger()).isTrue();
+        assertThat(converted.get("d").isDouble()).isTrue();
+    }
+
+    @Test
+    void converts_fixture_sources_like_a_string_roundtrip() throws Exception {
+        ExportDataProvider provider =
+                getExportDataProvider("src/test/resources/input/export_data_source_AP_NL30");
+
+        assertThat(JsonValueConverter.toJsonNode(provider.getDatasetJson()))
+                .isEqualTo(MAPPER.readTree(provider.getDatasetJson().toString()));
+        assertThat(JsonValueConverter.toJsonNode(provider.getDatasetFileDetails()))
+                .isEqualTo(MAPPER.readTree(provider.getDatasetFileDetails().toString()));
+    }
+
+    @Test
+    void null_stays_null() {
+        assertThat(JsonValueConverter.toJsonNode(null)).isNull();
+    }
+}
@@ -0,0 +1,70 @@
+package io.gdcc.spi.export.dcat3;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.junit.jupiter.api.Test;
+
+class ModelCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private static Model model(int triples) {
+        Model model = ModelFactory.createDefaultModel();
+        for (int i = 0; i < triples; i++) {
+            model.add(
+                    ResourceFactory.createResource("http://example.org/s" + i),
+                    ResourceFactory.createProperty("http://example.org/p"),
+                    "v");
+        }
+        return model;
+    }
+
+    @Test
+    void returns_the_cached_model_until_it_expires() {
+        ModelCache cache = new ModelCache(100, Duration.ofSeconds(10), now::get);
+        Model model = model(3);
+
+        cache.put("a", model);
+        now.addAndGet(Duration.ofSeconds(9).toNanos());
+        assertThat(cache.get("a")).isSameAs(model);
+
+        now.addAndGet(Duration.ofSeconds(2).toNanos());
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.stats()).isEqualTo(new ModelCache.Stats(1, 1, 0, 0, 0));
+    }
+
+    @Test
+    void evicts_least_recently_used_models_beyond_the_triple_bound() {
+        ModelCache cache = new ModelCache(10, Duration.ofMinutes(1), now::get);
+
+        cache.put("a", model(4));
+        cache.put("b", model(4));
+        cache.get("a"); // b is now the least recently used
+        cache.put("c", model(4));
+
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("a")).isNotNull();
+        assertThat(cache.get("c")).isNotNull();
+        assertThat(cache.stats().triples()).isEqualTo(8);
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+
+        cache.put("d", model(11)); // larger than the whole cache
+        assertThat(cache.get("d")).isNull();
+    }
+
+    @Test
+    void key_depends_on_input_and_configuration() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        String key = ModelCache.key(mapper.readTree("{\"a\":1}"), "cfg");
+
+        assertThat(ModelCache.key(mapper.readTree("{\"a\":1}"), "cfg")).isEqualTo(key);
+        assertThat(ModelCache.key(mapper.readTree("{\"a\":2}"), "cfg")).isNotEqualTo(key);
+        assertThat(ModelCache.key(mapper.readTree("{\"a\":1}"), "other")).isNotEqualTo(key);
+    }
+}
@@ -0,0 +1,105 @@
+package io.gdcc.spi.export.dcat3;
+
+import static io.gdcc.spi.export.util.TestUtil.copyConfig;
+import static io.gdcc.spi.export.util.TestUtil.export;
+import static io.gdcc.spi.export.util.TestUtil.useConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.gdcc.spi.export.dcat3.config.loader.ConfigCache;
+import io.gdcc.spi.export.dcat3.config.validate.ValidationMessage;
+import io.gdcc.spi.export.util.RootConfigProperty;
+import io.gdcc.spi.export.util.SyntheticExportDataProvider;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+@ExtendWith(RootConfigProperty.class)
+class PreparedConfigTest {
+
+    private static final Logger LOGGER = Logger.getLogger(PreparedConfig.class.getCanonicalName());
+
+    @TempDir Path temp;
+
+    private final List<String> logged = new ArrayList<>();
+    private final Handler handler =
+            new Handler() {
+                @Override
+                public void publish(LogRecord record) {
+                    logged.add(record.getMessage());
+                }
+
+                @Override
+                public void flush() {}
+
+                @Override
+                public void close() {}
+            };
+
+    @AfterEach
+    void tearDown() {
+        LOGGER.removeHandler(handler);
+    }
+
+    @Test
+    void validates_and_logs_once_per_configuration_generation() throws Exception {
+        Path root = copyConfig(temp, "");
+        // a value without a source: a validation warning, not an error
+        Files.writeString(
+                temp.resolve("dcat-dataset.properties"),
+                "\nprops.unsourced.predicate = dct:description\n",
+                StandardOpenOption.APPEND);
+        useConfig(root);
+        LOGGER.addHandler(handler);
+
+        Dcat3ExporterTurtle exporter = new Dcat3ExporterTurtle();
+        PreparedConfig prepared = Dcat3ExporterBase.prepared();
+        for (int files = 6; files <= 8; files++) {
+            export(exporter, SyntheticExportDataProvider.builder().files(files).build());
+        }
+
+        assertThat(Dcat3ExporterBase.prepared()).isSameAs(prepared);
+        assertThat(prepared.report().hasErrors()).isFalse();
+        assertThat(prepared.report().messages())
+                .extracting(ValidationMessage::code)
+                .containsOnlyOnce("DCATRSC-106");
+        assertThat(logged.stream().filter(message -> message.contains("DCATRSC-106")))
+                .hasSize(1);
+    }
+
+    @Test
+    void fingerprint_depends_on_the_mapping_properties_only() throws Exception {
+        Path original = copyConfig(temp.resolve("original"), "");
+        // the same mapping with every file in reverse line order and other output settings
+        Path reordered = copyConfig(temp.resolve("reordered"), "dcat.output.streaming = true\n");
+        try (Stream<Path> files = Files.list(reordered.getParent())) {
+            for (Path file : files.filter(f -> f.toString().endsWith(".properties")).toList()) {
+                List<String> lines = new ArrayList<>(Files.readAllLines(file));
+                Collections.reverse(lines);
+                Files.write(file, lines);
+            }
+        }
+        Path changed = copyConfig(temp.resolve("changed"), "prefix.ex = http://example.org/\n");
+
+        String fingerprint = fingerprint(original);
+
+        assertThat(fingerprint(reordered)).isEqualTo(fingerprint);
+        assertThat(fingerprint(changed)).isNotEqualTo(fingerprint);
+    }
+
+    /** Load the configuration with a cache of its own and fingerprint it. */
+    private static String fingerprint(Path root) throws Exception {
+        ConfigCache.Snapshot snapshot = new ConfigCache(false).get(root.toString());
+        return PreparedConfig.prepare(snapshot).fingerprint();
+    }
+}
@@ -0,0 +1,94 @@
+package io.gdcc.spi.export.dcat3;
+
+import static io.gdcc.spi.export.util.TestUtil.export;
+import static io.gdcc.spi.export.util.TestUtil.readModel;
+import static io.gdcc.spi.export.util.TestUtil.useApNl30Config;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.gdcc.spi.export.ExportDataProvider;
+import io.gdcc.spi.export.util.RootConfigProperty;
+import io.gdcc.spi.export.util.SyntheticExportDataProvider;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.riot.Lang;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+@ExtendWith(RootConfigProperty.class)
+class SpillingGraphTest {
+
+    @TempDir Path temp;
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty(SpillingGraph.TRIPLES_PROP);
+        System.clearProperty(SpillingGraph.DIR_PROP);
+    }
+
+    private static void fill(Model model, int triples) {
+        Property p = model.createProperty("http://example.org/p");
+        for (int i = 0; i < triples; i++) {
+            model.add(model.createResource("http://example.org/s" + i), p, "v" + i);
+        }
+    }
+
+    private boolean tempIsEmpty() throws Exception {
+        try (Stream<Path> files = Files.list(temp)) {
+            return files.findAny().isEmpty();
+        }
+    }
+
+    @Test
+    void moves_to_disk_above_the_threshold_and_cleans_up() throws Exception {
+        Model model = ModelFactory.createModelForGraph(new SpillingGraph(10, temp));
+
+        fill(model, 10);
+        assertThat(SpillingGraph.spilled(model)).isFalse();
+        assertThat(tempIsEmpty()).isTrue();
+
+        fill(model, 100); // the first 10 triples are added again
+        assertThat(SpillingGraph.spilled(model)).isTrue();
+        assertThat(model.size()).isEqualTo(100);
+        assertThat(model.contains(model.createResource("http://example.org/s42"), null)).isTrue();
+        assertThat(tempIsEmpty()).isFalse();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        model.write(out, "TURTLE");
+        assertThat(readModel(out.toByteArray(), Lang.TURTLE).size()).isEqualTo(100);
+
+        SpillingGraph.release(model);
+        assertThat(tempIsEmpty()).isTrue();
+    }
+
+    @Test
+    void model_is_in_memory_when_spilling_is_disabled() {
+        Model model = SpillingGraph.createModel();
+        fill(model, 1000);
+
+        assertThat(model.getGraph()).isNotInstanceOf(SpillingGraph.class);
+        assertThat(SpillingGraph.spilled(model)).isFalse();
+    }
+
+    @Test
+    void spilled_export_produces_the_same_graph() throws Exception {
+        useApNl30Config();
+        ExportDataProvider provider = SyntheticExportDataProvider.builder().files(123).build();
+
+        System.setProperty(SpillingGraph.TRIPLES_PROP, "50");
+        System.setProperty(SpillingGraph.DIR_PROP, temp.toString());
+        Model spilled = readModel(export(new Dcat3ExporterTurtle(), provider), Lang.TURTLE);
+        assertThat(tempIsEmpty()).isTrue();
+
+        System.clearProperty(SpillingGraph.TRIPLES_PROP);
+        Model inMemory = readModel(export(new Dcat3ExporterTurtle(), provider), Lang.TURTLE);
+
+        assertThat(spilled.size()).isGreaterThan(50);
+        assertThat(spilled.isIsomorphicWith(inMemory)).isTrue();
+    }
+}
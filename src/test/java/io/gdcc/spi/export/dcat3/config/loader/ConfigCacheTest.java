@@ -0,0 +1,115 @@
+package io.gdcc.spi.export.dcat3.config.loader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ConfigCacheTest {
+
+    @TempDir Path temp;
+
+    private Path writeConfig() throws Exception {
+        Path rootFile = temp.resolve("dcat-root.properties");
+        Files.writeString(
+                temp.resolve("dcat-catalog.properties"),
+                """
+            subject.iri.const = https://data.example.org/catalog
+            props.title.predicate = dct:title
+            props.title.const = Catalog
+            """);
+        Files.writeString(
+                temp.resolve("dcat-dataset.properties"),
+                """
+            subject.iri.json = $.datasetJson.persistentUrl
+            props.title.predicate = dct:title
+            props.title.json = $.datasetJson.title
+            """);
+        Files.writeString(
+                rootFile,
+                """
+            prefix.dcat = http://www.w3.org/ns/dcat#
+            prefix.dct  = http://purl.org/dc/terms/
+            element.catalog.id   = catalog
+            element.catalog.type = dcat:Catalog
+            element.catalog.file = dcat-catalog.properties
+            element.dataset.id   = dataset
+            element.dataset.type = dcat:Dataset
+            element.dataset.file = dcat-dataset.properties
+            """);
+        return rootFile;
+    }
+
+    @Test
+    void returns_same_snapshot_while_files_are_unchanged() throws Exception {
+        Path rootFile = writeConfig();
+        ConfigCache cache = new ConfigCache(false);
+
+        ConfigCache.Snapshot first = cache.get(rootFile.toString());
+        ConfigCache.Snapshot second = cache.get(rootFile.toString());
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.elementConfigs()).containsOnlyKeys("catalog", "dataset");
+    }
+
+    @Test
+    void reloads_only_the_changed_element_file() throws Exception {
+        Path rootFile = writeConfig();
+        ConfigCache cache = new ConfigCache(false);
+        ConfigCache.Snapshot first = cache.get(rootFile.toString());
+
+        Path datasetFile = temp.resolve("dcat-dataset.properties");
+        Files.writeString(
+                datasetFile,
+                """
+            subject.iri.json = $.datasetJson.persistentUrl
+            props.title.predicate = dct:title
+            props.title.json = $.datasetJson.datasetVersion.title
+            """);
+        Files.setLastModifiedTime(datasetFile, FileTime.from(Instant.now().plusSeconds(10)));
+
+        ConfigCache.Snapshot second = cache.get(rootFile.toString());
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.elementConfigs().get("catalog"))
+                .isSameAs(first.elementConfigs().get("catalog"));
+        assertThat(second.elementConfigs().get("dataset").props().get("title").json())
+                .isEqualTo("$.datasetJson.datasetVersion.title");
+    }
+
+    @Test
+    void watched_change_is_reloaded() throws Exception {
+        Path rootFile = writeConfig();
+        ConfigCache cache = new ConfigCache(true);
+        ConfigCache.Snapshot first = cache.get(rootFile.toString());
+
+        Path datasetFile = temp.resolve("dcat-dataset.properties");
+        Files.writeString(datasetFile, "subject.iri.json = $.datasetJson.identifier\n");
+        Files.setLastModifiedTime(datasetFile, FileTime.from(Instant.now().plusSeconds(10)));
+
+        // the watcher reports the change asynchronously; once seen it must not be lost
+        ConfigCache.Snapshot second = cache.get(rootFile.toString());
+        for (int i = 0; i < 200 && second == first; i++) {
+            Thread.sleep(50);
+            second = cache.get(rootFile.toString());
+        }
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(cache.get(rootFile.toString())).isSameAs(second);
+    }
+
+    @Test
+    void invalidate_forces_a_reload() throws Exception {
+        Path rootFile = writeConfig();
+        ConfigCache cache = new ConfigCache(false);
+        ConfigCache.Snapshot first = cache.get(rootFile.toString());
+
+        cache.invalidate();
+
+        assertThat(cache.get(rootFile.toString())).isNotSameAs(first);
+    }
+}
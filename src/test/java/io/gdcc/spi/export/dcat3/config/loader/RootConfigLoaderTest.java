@@ -6,6 +6,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import io.gdcc.spi.export.dcat3.config.model.ResourceConfig;
 import io.gdcc.spi.export.dcat3.config.model.RootConfig;
+import io.gdcc.spi.export.dcat3.config.model.TraceConfig;
 import io.gdcc.spi.export.dcat3.config.model.ValueSource;
 import java.io.InputStream;
 import java.nio.file.Files;
@@ -179,6 +180,31 @@ public class RootConfigLoaderTest {
                 .hasMessageContaining(RootConfigLoader.SYS_PROP);
     }
 
+    @Test
+    void reads_trace_settings() throws Exception {
+        Path rootFile = temp.resolve("dcat-root.properties");
+        Files.writeString(
+                rootFile,
+                """
+            dcat.trace.enabled   = true
+            dcat.trace.file      = %s
+            dcat.trace.datasets  = doi:10.5072/A, doi:10.5072/B
+            dcat.trace.max.bytes = 4096
+            """
+                        .formatted(temp.resolve("trace.jsonl")));
+
+        TraceConfig trace = RootConfigLoader.load(rootFile.toString()).traceConfig();
+
+        assertThat(trace.file()).isEqualTo(temp.resolve("trace.jsonl"));
+        assertThat(trace.datasets()).containsExactlyInAnyOrder("doi:10.5072/A", "doi:10.5072/B");
+        // with listed datasets, only those are traced unless a rate is given
+        assertThat(trace.sampleRate()).isZero();
+        assertThat(trace.sampled("doi:10.5072/A")).isTrue();
+        assertThat(trace.sampled("doi:10.5072/C")).isFalse();
+        assertThat(trace.maxBytes()).isEqualTo(4096);
+        assertThat(trace.maxFiles()).isEqualTo(RootConfigLoader.DEFAULT_TRACE_MAX_FILES);
+    }
+
     // --- helpers ---
 
     private static void assumeHomeAvailable(String home) {
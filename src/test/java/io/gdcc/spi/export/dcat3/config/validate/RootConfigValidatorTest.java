@@ -51,4 +51,20 @@ class RootConfigValidatorTest {
                 .extracting(ValidationMessage::code)
                 .contains("DCATCFG-015", "DCATCFG-016");
     }
+
+    @Test
+    @DisplayName("RootConfigValidator requires JSONPath join keys on both sides of keyed relations")
+    void rootConfig_keyed_relation_needs_both_join_keys() {
+        RootConfigValidator validator = new RootConfigValidator();
+        Relation oneSided = new Relation("dataset", "dcat:distribution", "file", "$.id", null);
+        Relation notAPath = new Relation("dataset", "dcat:distribution", "file", "id", "$.id");
+        when(root.prefixes()).thenReturn(Map.of("dcat", "http://www.w3.org/ns/dcat#"));
+        when(root.elements()).thenReturn(List.of());
+        when(root.relations()).thenReturn(List.of(oneSided, notAPath));
+
+        List<ValidationMessage> messages = validator.validate(root);
+        assertThat(messages)
+                .extracting(ValidationMessage::code)
+                .contains("DCATCFG-026", "DCATCFG-027");
+    }
 }
@@ -0,0 +1,46 @@
+package io.gdcc.spi.export.dcat3.config.validate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ValidationReportTest {
+
+    private static ValidationMessage message(Severity severity, String code) {
+        return new ValidationMessage(severity, code, "root", "message", null);
+    }
+
+    @Test
+    void is_a_snapshot_of_the_messages() {
+        List<ValidationMessage> messages =
+                new ArrayList<>(Arrays.asList(message(Severity.WARNING, "W-1"), null));
+
+        ValidationReport report = ValidationReport.of(messages);
+        messages.add(message(Severity.ERROR, "E-1"));
+
+        assertThat(report.messages()).extracting(ValidationMessage::code).containsExactly("W-1");
+        assertThat(report.hasErrors()).isFalse();
+        assertThatThrownBy(() -> report.messages().add(message(Severity.ERROR, "E-2")))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void with_combines_without_changing_either_report() {
+        ValidationReport warnings = ValidationReport.of(List.of(message(Severity.WARNING, "W-1")));
+        ValidationReport errors = ValidationReport.of(List.of(message(Severity.ERROR, "E-1")));
+
+        ValidationReport all = warnings.with(errors);
+
+        assertThat(all.messages())
+                .extracting(ValidationMessage::code)
+                .containsExactly("W-1", "E-1");
+        assertThat(all.hasErrors()).isTrue();
+        assertThat(warnings.messages()).hasSize(1);
+        assertThat(warnings.hasErrors()).isFalse();
+        assertThat(warnings.with(ValidationReport.of(null))).isSameAs(warnings);
+    }
+}
@@ -43,4 +43,16 @@ class ValidatorsTest {
         ValidationReport report = Validators.validateAll(root, configs);
         assertThat(report.messages()).isNotNull();
     }
+
+    @Test
+    @DisplayName("Validators.validateResources does not validate the root config again")
+    void validateResources_skips_root() {
+        when(root.prefixes()).thenReturn(Map.of());
+
+        ValidationReport report = Validators.validateResources(root, Map.of("e1", rc));
+
+        assertThat(report.messages())
+                .extracting(ValidationMessage::code)
+                .doesNotContain("DCATCFG-001", "DCATCFG-010");
+    }
 }
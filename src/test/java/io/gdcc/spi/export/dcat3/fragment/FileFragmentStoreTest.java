@@ -0,0 +1,67 @@
+package io.gdcc.spi.export.dcat3.fragment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileFragmentStoreTest {
+
+    private static final byte[] FRAGMENT =
+            "<http://example.org/a> <http://example.org/p> \"x\" .\n"
+                    .getBytes(StandardCharsets.UTF_8);
+
+    @TempDir Path temp;
+
+    @Test
+    void returns_the_fragment_only_for_the_same_key() throws Exception {
+        FileFragmentStore store = new FileFragmentStore(temp.resolve("fragments"));
+        FragmentKey key = new FragmentKey("doi:10.5072/FK2/A", "1.0/RELEASED/t1", "cfg");
+
+        assertThat(store.get(key)).isNull();
+        store.put(key, FRAGMENT);
+
+        assertThat(store.get(key)).isEqualTo(FRAGMENT);
+        assertThat(store.get(new FragmentKey(key.persistentId(), "2.0/RELEASED/t2", "cfg")))
+                .isNull();
+        assertThat(store.get(new FragmentKey(key.persistentId(), key.version(), "other")))
+                .isNull();
+    }
+
+    @Test
+    void a_new_version_replaces_the_previous_fragment() throws Exception {
+        Path directory = temp.resolve("fragments");
+        FileFragmentStore store = new FileFragmentStore(directory);
+        FragmentKey v1 = new FragmentKey("doi:10.5072/FK2/A", "1.0/RELEASED/t1", "cfg");
+        FragmentKey v2 = new FragmentKey("doi:10.5072/FK2/A", "2.0/RELEASED/t2", "cfg");
+
+        store.put(v1, FRAGMENT);
+        store.put(v2, FRAGMENT);
+
+        try (var files = Files.list(directory)) {
+            assertThat(files).hasSize(1);
+        }
+        assertThat(store.get(v1)).isNull();
+        assertThat(store.get(v2)).isEqualTo(FRAGMENT);
+    }
+
+    @Test
+    void key_is_read_from_the_native_dataset_json() throws Exception {
+        String json =
+                "{\"persistentUrl\":\"https://doi.org/10.5072/FK2/A\","
+                        + "\"datasetVersion\":{\"datasetPersistentId\":\"doi:10.5072/FK2/A\","
+                        + "\"versionNumber\":3,\"versionMinorNumber\":1,"
+                        + "\"versionState\":\"RELEASED\","
+                        + "\"lastUpdateTime\":\"2025-01-02T10:00:00Z\"}}";
+
+        FragmentKey key = FragmentKey.of(new ObjectMapper().readTree(json), "cfg");
+
+        assertThat(key.persistentId()).isEqualTo("doi:10.5072/FK2/A");
+        assertThat(key.version()).isEqualTo("3.1/RELEASED/2025-01-02T10:00:00Z");
+        assertThat(FragmentKey.of(new ObjectMapper().readTree("{}"), "cfg")).isNull();
+    }
+}
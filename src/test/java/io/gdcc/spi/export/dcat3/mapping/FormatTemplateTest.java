@@ -0,0 +1,83 @@
+package io.gdcc.spi.export.dcat3.mapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class FormatTemplateTest {
+
+    private static JaywayJsonFinder finderFor(String json) throws Exception {
+        JsonNode root = new ObjectMapper().readTree(json);
+        return new JaywayJsonFinder(root);
+    }
+
+    @Test
+    @DisplayName("compile() returns null when no format is configured")
+    void compile_blank_returns_null() {
+        assertThat(FormatTemplate.compile(null, List.of())).isNull();
+        assertThat(FormatTemplate.compile("  ", List.of())).isNull();
+    }
+
+    @Test
+    @DisplayName("render() substitutes ${value}, falling back to the json selector")
+    void render_value_and_fallback() throws Exception {
+        JaywayJsonFinder finder = finderFor("{\"email\":\"a@example.org\"}");
+        FormatTemplate template = FormatTemplate.compile("mailto:${value}", List.of());
+
+        assertThat(template.render("b@example.org", null, finder))
+                .isEqualTo("mailto:b@example.org");
+        assertThat(template.render("", ValuePath.compile("$.email"), finder))
+                .isEqualTo("mailto:a@example.org");
+        assertThat(template.render(null, null, finder)).isEqualTo("mailto:");
+    }
+
+    @Test
+    @DisplayName("render() resolves indexed and inline JSONPath placeholders")
+    void render_indexed_and_inline() throws Exception {
+        JaywayJsonFinder finder =
+                finderFor("{\"version\":{\"major\":2,\"minor\":1},\"id\":\"doi:10.5072/X\"}");
+        FormatTemplate template =
+                FormatTemplate.compile(
+                        "V${1}.${2} of ${$.id}${$.missing}",
+                        List.of("$.version.major", "$.version.minor"));
+
+        assertThat(template.render("", null, finder)).isEqualTo("V2.1 of doi:10.5072/X");
+    }
+
+    @Test
+    @DisplayName("render() keeps unknown, out-of-range and malformed placeholders as-is")
+    void render_keeps_unknown_tokens() throws Exception {
+        JaywayJsonFinder finder = finderFor("{\"a\":\"x\"}");
+        FormatTemplate template =
+                FormatTemplate.compile("${1}-${2}-${foo}-${$.a}-${open", List.of("$.a"));
+
+        assertThat(template.render("", null, finder)).isEqualTo("x-${2}-${foo}-x-${open");
+    }
+
+    @Test
+    @DisplayName("compileValue() only substitutes ${value}, like subject.iri.format always did")
+    void compile_value_keeps_other_placeholders() throws Exception {
+        JaywayJsonFinder finder = finderFor("{\"a\":\"x\"}");
+        FormatTemplate template = FormatTemplate.compileValue("https://e.org/${value}/${$.a}/${1}");
+
+        assertThat(template.render("42", null, finder)).isEqualTo("https://e.org/42/${$.a}/${1}");
+        assertThat(FormatTemplate.compileValue(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("renderTo() clears and reuses the given builder")
+    void render_to_reuses_builder() throws Exception {
+        JaywayJsonFinder finder = finderFor("{}");
+        FormatTemplate template = FormatTemplate.compile("mailto:${value}", List.of());
+        StringBuilder out = new StringBuilder("stale");
+
+        assertThat(template.renderTo(out, "a@example.org", null, finder)).isSameAs(out);
+        assertThat(out.toString()).isEqualTo("mailto:a@example.org");
+        assertThat(template.renderTo(out, "b@example.org", null, finder).toString())
+                .isEqualTo("mailto:b@example.org");
+    }
+}
@@ -88,6 +88,27 @@ class JaywayJsonFinderTest {
         assertThat(rootTitle).containsExactly("Else");
     }
 
+    @Test
+    @DisplayName("nodes() returns the subtrees of the original tree without copying them")
+    void nodes_returns_original_subtrees() throws Exception {
+        JsonNode root =
+                jsonNode(
+                        """
+            {"files":[{"id":1,"name":"a.csv","size":10.5,"restricted":false},{"id":2}]}
+        """);
+        JaywayJsonFinder finder = new JaywayJsonFinder(root);
+
+        List<JsonNode> files = finder.nodes("$.files[*]");
+        assertThat(files).hasSize(2);
+        assertThat(files.get(0)).isSameAs(root.get("files").get(0));
+
+        JaywayJsonFinder scoped = finder.at(files.get(0));
+        assertThat(scoped.list("$.id")).containsExactly("1");
+        assertThat(scoped.list("$.size")).containsExactly("10.5");
+        assertThat(scoped.list("$.restricted")).containsExactly("false");
+        assertThat(finder.at(files.get(1)).list("$.name")).isEmpty();
+    }
+
     @ParameterizedTest(name = "empty or invalid jsonPath '{0}' returns empty list (list)")
     @ValueSource(strings = {"", "   ", "$.no.such.path"})
     void list_empty_or_invalid_path_returns_empty(String path) throws Exception {
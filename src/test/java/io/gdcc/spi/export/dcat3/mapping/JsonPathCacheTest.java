@@ -0,0 +1,52 @@
+package io.gdcc.spi.export.dcat3.mapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+
+class JsonPathCacheTest {
+
+    @Test
+    void compiles_each_path_once() {
+        JsonPathCache cache = new JsonPathCache(8);
+
+        JsonPath first = cache.get("$.dataFile.id");
+        JsonPath second = cache.get("  $.dataFile.id ");
+
+        assertThat(first).isNotNull().isSameAs(second);
+        assertThat(cache.stats()).isEqualTo(new JsonPathCache.Stats(1, 1, 0, 1));
+    }
+
+    @Test
+    void invalid_paths_are_cached_as_no_path() {
+        JsonPathCache cache = new JsonPathCache(8);
+
+        assertThat(cache.get("$[?(@.a == ]")).isNull();
+        assertThat(cache.get("$[?(@.a == ]")).isNull();
+        assertThat(cache.get("   ")).isNull();
+        assertThat(cache.get(null)).isNull();
+
+        assertThat(cache.stats().misses()).isEqualTo(1);
+        assertThat(cache.stats().hits()).isEqualTo(1);
+    }
+
+    @Test
+    void stays_within_its_bound() {
+        JsonPathCache cache = new JsonPathCache(2);
+
+        cache.get("$.a");
+        cache.get("$.b");
+        cache.get("$.c");
+
+        assertThat(cache.stats().size()).isEqualTo(2);
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+    }
+
+    @Test
+    void rejects_non_positive_size() {
+        assertThatThrownBy(() -> new JsonPathCache(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -38,4 +38,23 @@ class PrefixesTest {
         String uri = prefixes.jena().getNsPrefixURI("dcat");
         assertThat(uri).isEqualTo("http://www.w3.org/ns/dcat#");
     }
+
+    @Test
+    @DisplayName("node(), property() and resource() return one shared instance per IRI")
+    void nodes_are_interned() {
+        Map<String, String> ns = new LinkedHashMap<String, String>();
+        ns.put("dct", "http://purl.org/dc/terms/");
+        Prefixes prefixes = new Prefixes(ns);
+
+        assertThat(prefixes.node("dct:title"))
+                .isSameAs(prefixes.node("http://purl.org/dc/terms/title"))
+                .isSameAs(prefixes.uri("http://purl.org/dc/terms/title"))
+                .isSameAs(prefixes.property("dct:title").asNode());
+        assertThat(prefixes.property("dct:title")).isSameAs(prefixes.property("dct:title"));
+        assertThat(prefixes.resource("dct:Agent").getURI())
+                .isEqualTo("http://purl.org/dc/terms/Agent");
+        assertThat(prefixes.resource("dct:Agent")).isSameAs(prefixes.resource("dct:Agent"));
+        assertThat(prefixes.node(null)).isNull();
+        assertThat(prefixes.property(null)).isNull();
+    }
 }
@@ -10,6 +10,8 @@ import io.gdcc.spi.export.dcat3.config.model.ValueSource;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.Statement;
@@ -145,4 +147,103 @@ class ResourceMapperTest {
         assertThat(idStmts.get(0).getObject().asResource().getURI())
                 .isEqualTo("http://example.org/id-iri");
     }
+
+    @Test
+    @DisplayName("plan().rootFields() lists the top-level fields read, null for deep scans")
+    void plan_reports_root_fields() {
+        Prefixes prefixes = new Prefixes(Map.of("dct", "http://purl.org/dc/terms/"));
+
+        assertThat(planReading(prefixes, "$.dataset.identifier").rootFields())
+                .containsExactly("dataset");
+        assertThat(planReading(prefixes, "$..identifier").rootFields()).isNull();
+    }
+
+    private static ResourcePlan planReading(Prefixes prefixes, String json) {
+        ResourceConfig rc = mock(ResourceConfig.class, RETURNS_DEEP_STUBS);
+        when(rc.subject().iriConst()).thenReturn("http://example.org/id");
+        when(rc.subject().iriTemplate()).thenReturn(null);
+        when(rc.subject().iriFormat()).thenReturn(null);
+        when(rc.subject().iriJson()).thenReturn(null);
+
+        ValueSource vsId = mock(ValueSource.class);
+        when(vsId.predicate()).thenReturn("dct:identifier");
+        when(vsId.as()).thenReturn("literal");
+        when(vsId.json()).thenReturn(json);
+        when(vsId.map()).thenReturn(java.util.Collections.emptyMap());
+        when(vsId.jsonPaths()).thenReturn(java.util.Collections.emptyList());
+
+        when(rc.props()).thenReturn(Map.of("identifier", vsId));
+        when(rc.nodes()).thenReturn(java.util.Collections.emptyMap());
+        when(rc.scopeJson()).thenReturn(null);
+        return new ResourceMapper(rc, prefixes, "dcat:Dataset").plan();
+    }
+
+    /** A mapper minting http://example.org/file/{id} per entry of $.files, with a title. */
+    private static ResourceMapper fileMapper() {
+        Prefixes prefixes = new Prefixes(Map.of("dct", "http://purl.org/dc/terms/"));
+
+        ResourceConfig rc = mock(ResourceConfig.class, RETURNS_DEEP_STUBS);
+        when(rc.subject().iriConst()).thenReturn(null);
+        when(rc.subject().iriTemplate()).thenReturn(null);
+        when(rc.subject().iriFormat()).thenReturn("http://example.org/file/${value}");
+        when(rc.subject().iriJson()).thenReturn("$.id");
+
+        ValueSource vsTitle = mock(ValueSource.class);
+        when(vsTitle.predicate()).thenReturn("dct:title");
+        when(vsTitle.as()).thenReturn("literal");
+        when(vsTitle.json()).thenReturn("$.name");
+        when(vsTitle.map()).thenReturn(java.util.Collections.emptyMap());
+        when(vsTitle.jsonPaths()).thenReturn(java.util.Collections.emptyList());
+
+        when(rc.props()).thenReturn(Map.of("title", vsTitle));
+        when(rc.nodes()).thenReturn(java.util.Collections.emptyMap());
+        when(rc.scopeJson()).thenReturn("$.files[*]");
+
+        return new ResourceMapper(rc, prefixes, "dct:Dataset");
+    }
+
+    private static String files(int count) {
+        StringBuilder json = new StringBuilder("{\"files\":[");
+        for (int i = 0; i < count; i++) {
+            json.append(i == 0 ? "" : ",")
+                    .append("{\"id\":")
+                    .append(i)
+                    .append(",\"name\":\"file-")
+                    .append(i)
+                    .append("\"}");
+        }
+        return json.append("]}").toString();
+    }
+
+    @Test
+    @DisplayName("build() with a parallel threshold maps scope nodes in partitions, same graph")
+    void build_parallel_scopes_produces_the_same_graph() throws Exception {
+        JaywayJsonFinder finder = finderFor(files(500));
+        ResourceMapper mapper = fileMapper();
+
+        Model sequential = mapper.build(finder);
+        Model parallel = mapper.build(finder, 1);
+
+        assertThat(sequential.size()).isEqualTo(1000);
+        assertThat(parallel.isIsomorphicWith(sequential)).isTrue();
+    }
+
+    @Test
+    @DisplayName("emit() into a TripleBuffer tracks the typed subjects in scope order")
+    void emit_into_buffer_tracks_typed_subjects() throws Exception {
+        JaywayJsonFinder finder = finderFor(files(3));
+        ResourceMapper mapper = fileMapper();
+
+        for (int threshold : new int[] {Integer.MAX_VALUE, 2}) {
+            TripleBuffer buffer = new TripleBuffer();
+            List<Node> subjects = mapper.emit(finder, buffer, threshold);
+
+            assertThat(buffer.size()).isEqualTo(6);
+            assertThat(subjects)
+                    .containsExactly(
+                            NodeFactory.createURI("http://example.org/file/0"),
+                            NodeFactory.createURI("http://example.org/file/1"),
+                            NodeFactory.createURI("http://example.org/file/2"));
+        }
+    }
 }
@@ -0,0 +1,140 @@
+package io.gdcc.spi.export.dcat3.metrics;
+
+import static io.gdcc.spi.export.util.TestUtil.export;
+import static io.gdcc.spi.export.util.TestUtil.useApNl30Config;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.gdcc.spi.export.dcat3.Dcat3ExporterTurtle;
+import io.gdcc.spi.export.util.RootConfigProperty;
+import io.gdcc.spi.export.util.SyntheticExportDataProvider;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(RootConfigProperty.class)
+class ExportMetricsTest {
+
+    @Test
+    void records_phases_elements_and_output() {
+        ExportMetrics metrics = new ExportMetrics(true);
+        List<String> elements = new ArrayList<>();
+        metrics.onElement(elements::add);
+
+        metrics.record(ExportMetrics.Phase.BUILD, metrics.start());
+        metrics.record(ExportMetrics.Phase.BUILD, metrics.start());
+        metrics.recordElement("dataset", metrics.start(), 12);
+        metrics.recordElement("dataset", metrics.start(), 8);
+        metrics.recordJsonPath(metrics.start());
+        metrics.exported(100);
+        metrics.failed();
+
+        assertThat(metrics.phase(ExportMetrics.Phase.BUILD).count()).isEqualTo(2);
+        assertThat(metrics.getPhaseCounts())
+                .containsEntry("build", 2L)
+                .containsEntry("serialization", 0L);
+        assertThat(metrics.element("dataset").count()).isEqualTo(2);
+        assertThat(metrics.element("catalog")).isNull();
+        assertThat(metrics.getElementTriples()).containsEntry("dataset", 20L);
+        assertThat(elements).containsExactly("dataset");
+        assertThat(metrics.getJsonPathEvaluations()).isEqualTo(1);
+        assertThat(metrics.getExports()).isEqualTo(1);
+        assertThat(metrics.getOutputBytes()).isEqualTo(100);
+        assertThat(metrics.getFailures()).isEqualTo(1);
+
+        metrics.reset();
+        assertThat(metrics.getPhaseCounts()).containsEntry("build", 0L);
+        assertThat(metrics.getElementTriples()).containsEntry("dataset", 0L);
+        assertThat(metrics.getExports()).isZero();
+    }
+
+    @Test
+    void disabled_metrics_record_nothing() {
+        ExportMetrics metrics = new ExportMetrics(false);
+
+        assertThat(metrics.start()).isZero();
+        metrics.record(ExportMetrics.Phase.MERGE, metrics.start());
+        metrics.recordElement("dataset", metrics.start(), 5);
+        metrics.exported(10);
+
+        assertThat(metrics.phase(ExportMetrics.Phase.MERGE).count()).isZero();
+        assertThat(metrics.elementIds()).isEmpty();
+        assertThat(metrics.getExports()).isZero();
+    }
+
+    @Test
+    void gauges_read_their_source() {
+        ExportMetrics metrics = new ExportMetrics(true);
+        long[] value = {3};
+        metrics.gauge("cache.size", () -> value[0]);
+        metrics.gauge(
+                "broken",
+                () -> {
+                    throw new IllegalStateException();
+                });
+
+        value[0] = 7;
+        assertThat(metrics.getGauges()).containsEntry("cache.size", 7L).containsEntry("broken", 0L);
+    }
+
+    @Test
+    void registration_replaces_the_instance_of_an_earlier_deployment() throws Exception {
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        ObjectName name = new ObjectName(ExportMetrics.OBJECT_NAME);
+        ExportMetrics earlier = new ExportMetrics(true);
+        earlier.exported(10);
+        ExportMetrics.register(server, earlier);
+
+        ExportMetrics.register(server, new ExportMetrics(true));
+        assertThat(server.getAttribute(name, "Exports")).isEqualTo(0L);
+
+        ExportMetrics.unregister(server);
+        assertThat(server.isRegistered(name)).isFalse();
+    }
+
+    @Test
+    void shared_metrics_are_off_and_unregistered_by_default() throws Exception {
+        useApNl30Config();
+        export(new Dcat3ExporterTurtle(), SyntheticExportDataProvider.builder().files(5).build());
+
+        ExportMetrics metrics = ExportMetrics.shared();
+        assertThat(metrics.isEnabled()).isFalse();
+        assertThat(metrics.getExports()).isZero();
+        assertThat(metrics.getJsonPathEvaluations()).isZero();
+        assertThat(
+                        ManagementFactory.getPlatformMBeanServer()
+                                .isRegistered(new ObjectName(ExportMetrics.OBJECT_NAME)))
+                .isFalse();
+    }
+
+    @Test
+    void export_is_recorded_and_published_over_jmx() throws Exception {
+        useApNl30Config();
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        ExportMetrics metrics = new ExportMetrics(true);
+        ExportMetrics.register(server, metrics);
+        ExportMetrics previous = ExportMetrics.replaceShared(metrics);
+        byte[] out;
+        try {
+            out =
+                    export(
+                            new Dcat3ExporterTurtle(),
+                            SyntheticExportDataProvider.builder().files(17).build());
+        } finally {
+            ExportMetrics.replaceShared(previous);
+        }
+
+        assertThat(metrics.getExports()).isEqualTo(1);
+        assertThat(metrics.getOutputBytes()).isEqualTo(out.length);
+        assertThat(metrics.triples("dataset")).isPositive();
+        assertThat(metrics.phase(ExportMetrics.Phase.SERIALIZATION).count()).isPositive();
+        assertThat(metrics.getJsonPathEvaluations()).isPositive();
+        assertThat(metrics.getGauges()).containsKeys("model.cache.hits", "jsonpath.cache.size");
+        assertThat(server.getAttribute(new ObjectName(ExportMetrics.OBJECT_NAME), "Exports"))
+                .isEqualTo(1L);
+    }
+}
@@ -0,0 +1,42 @@
+package io.gdcc.spi.export.dcat3.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+class MicrometerMetricsTest {
+
+    @Test
+    void meters_follow_the_export_metrics() {
+        ExportMetrics metrics = new ExportMetrics(true);
+        metrics.recordElement("catalog", metrics.start(), 4);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new MicrometerMetrics(metrics).bindTo(registry);
+
+        metrics.exported(42);
+        metrics.record(ExportMetrics.Phase.RELATIONS, metrics.start());
+        metrics.recordElement("dataset", metrics.start(), 9); // first seen after binding
+        metrics.gauge("cache.size", () -> 5);
+
+        assertThat(registry.get("dcat3.exports").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("dcat3.export.output").functionCounter().count()).isEqualTo(42);
+        FunctionTimer relations =
+                registry.get("dcat3.export.phase").tag("phase", "relations").functionTimer();
+        assertThat(relations.count()).isEqualTo(1);
+        assertThat(
+                        registry.get("dcat3.element.triples")
+                                .tag("element", "catalog")
+                                .functionCounter()
+                                .count())
+                .isEqualTo(4);
+        assertThat(
+                        registry.get("dcat3.element.build")
+                                .tag("element", "dataset")
+                                .functionTimer()
+                                .count())
+                .isEqualTo(1);
+        assertThat(registry.get("dcat3.cache.size").gauge().value()).isEqualTo(5);
+    }
+}
@@ -0,0 +1,88 @@
+package io.gdcc.spi.export.dcat3.trace;
+
+import static io.gdcc.spi.export.util.TestUtil.copyConfig;
+import static io.gdcc.spi.export.util.TestUtil.export;
+import static io.gdcc.spi.export.util.TestUtil.useConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gdcc.spi.export.dcat3.Dcat3ExporterTurtle;
+import io.gdcc.spi.export.util.RootConfigProperty;
+import io.gdcc.spi.export.util.SyntheticExportDataProvider;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+@ExtendWith(RootConfigProperty.class)
+class ExportTraceTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @TempDir Path temp;
+
+    /** The AP-NL 3.0 config with tracing enabled by the given settings. */
+    private Path traceFile(String settings) throws Exception {
+        Path trace = temp.resolve("trace.jsonl");
+        useConfig(
+                copyConfig(
+                        temp.resolve("config"),
+                        "dcat.trace.enabled = true\ndcat.trace.file = " + trace + "\n" + settings));
+        return trace;
+    }
+
+    private static void exportFiles(int files) throws Exception {
+        export(
+                new Dcat3ExporterTurtle(),
+                SyntheticExportDataProvider.builder().files(files).build());
+    }
+
+    @Test
+    void writes_one_json_line_per_export() throws Exception {
+        Path trace = traceFile("");
+
+        exportFiles(11);
+        exportFiles(13);
+
+        List<String> lines = Files.readAllLines(trace);
+        assertThat(lines).hasSize(2);
+        JsonNode record = MAPPER.readTree(lines.get(0));
+        assertThat(record.path("dataset").asText()).startsWith("doi:10.5072/SYN/");
+        assertThat(record.path("formats").get(0).asText()).isEqualTo("dcat3-turtle");
+        assertThat(record.path("cached").asBoolean()).isFalse();
+        assertThat(record.path("bytes").asLong()).isPositive();
+        assertThat(record.path("phases").has("build")).isTrue();
+        assertThat(record.path("phases").has("serialization")).isTrue();
+
+        JsonNode distribution = element(record, "distribution");
+        assertThat(distribution.path("scopes").asInt()).isEqualTo(11);
+        assertThat(distribution.path("triples").asLong()).isPositive();
+        assertThat(distribution.path("paths").size()).isPositive();
+        for (JsonNode path : distribution.path("paths")) {
+            assertThat(path.path("evaluations").asLong()).isPositive();
+        }
+        assertThat(record.path("triples").asLong())
+                .isGreaterThanOrEqualTo(distribution.path("triples").asLong());
+    }
+
+    @Test
+    void only_listed_datasets_are_traced() throws Exception {
+        Path trace = traceFile("dcat.trace.datasets = doi:10.5072/NOT/EXPORTED\n");
+
+        exportFiles(19);
+
+        assertThat(Files.exists(trace)).isFalse();
+    }
+
+    private static JsonNode element(JsonNode record, String id) {
+        for (JsonNode element : record.path("elements")) {
+            if (id.equals(element.path("id").asText())) {
+                return element;
+            }
+        }
+        throw new AssertionError("no trace of element " + id);
+    }
+}
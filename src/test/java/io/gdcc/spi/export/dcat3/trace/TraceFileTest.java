@@ -0,0 +1,50 @@
+package io.gdcc.spi.export.dcat3.trace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TraceFileTest {
+
+    @TempDir Path temp;
+
+    private static byte[] line(int n) {
+        return ("{\"n\":" + n + "}\n").getBytes(StandardCharsets.UTF_8); // 8 bytes
+    }
+
+    @Test
+    void rolls_over_and_keeps_max_files() throws Exception {
+        Path path = temp.resolve("logs/trace.jsonl");
+        TraceFile file = TraceFile.of(path);
+
+        for (int n = 1; n <= 9; n++) {
+            file.append(line(n), 24, 3); // three records per file
+        }
+
+        assertThat(Files.readAllLines(path)).containsExactly("{\"n\":7}", "{\"n\":8}", "{\"n\":9}");
+        assertThat(Files.readAllLines(file.rolled(1)))
+                .containsExactly("{\"n\":4}", "{\"n\":5}", "{\"n\":6}");
+        assertThat(Files.readAllLines(file.rolled(2)))
+                .containsExactly("{\"n\":1}", "{\"n\":2}", "{\"n\":3}");
+
+        file.append(line(10), 24, 3);
+        assertThat(Files.readAllLines(file.rolled(2))).startsWith("{\"n\":4}");
+        assertThat(Files.exists(file.rolled(3))).isFalse();
+    }
+
+    @Test
+    void starts_again_when_the_file_was_removed() throws Exception {
+        Path path = temp.resolve("trace.jsonl");
+        TraceFile file = TraceFile.of(path);
+        file.append(line(1), 1024, 2);
+
+        Files.delete(path);
+        file.append(line(2), 1024, 2);
+
+        assertThat(Files.readAllLines(path)).containsExactly("{\"n\":2}");
+    }
+}
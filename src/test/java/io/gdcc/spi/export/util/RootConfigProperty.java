@@ -0,0 +1,34 @@
+package io.gdcc.spi.export.util;
+
+import io.gdcc.spi.export.dcat3.config.loader.RootConfigLoader;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Restores {@link RootConfigLoader#SYS_PROP} after each test, for tests that point the exporters
+ * at a configuration of their own with {@link TestUtil#useConfig}.
+ */
+public class RootConfigProperty implements BeforeEachCallback, AfterEachCallback {
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(RootConfigProperty.class);
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        String original = System.getProperty(RootConfigLoader.SYS_PROP);
+        if (original != null) {
+            context.getStore(NAMESPACE).put(RootConfigLoader.SYS_PROP, original);
+        }
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        String original =
+                context.getStore(NAMESPACE).remove(RootConfigLoader.SYS_PROP, String.class);
+        if (original != null) {
+            System.setProperty(RootConfigLoader.SYS_PROP, original);
+        } else {
+            System.clearProperty(RootConfigLoader.SYS_PROP);
+        }
+    }
+}
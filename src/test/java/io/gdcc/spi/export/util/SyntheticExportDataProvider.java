@@ -0,0 +1,556 @@
+package io.gdcc.spi.export.util;
+
+import io.gdcc.spi.export.ExportDataProvider;
+import jakarta.json.Json;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonBuilderFactory;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generator of large datasets, shaped like the Dataverse JSON in the test fixtures
+ * ({@code export_data_source_AP_NL30}), for scale testing the export.
+ *
+ * <p>The same builder settings always produce the same sources. Each source is generated on first
+ * access and then kept, so repeated exports of one provider measure the export only.
+ *
+ * <pre>{@code
+ * ExportDataProvider provider =
+ *         SyntheticExportDataProvider.builder().files(100_000).authors(20).keywords(50).build();
+ * }</pre>
+ */
+public final class SyntheticExportDataProvider implements ExportDataProvider {
+    private static final JsonBuilderFactory JSON = Json.createBuilderFactory(null);
+
+    /** File types cycled through: extension, content type, friendly type. */
+    private static final List<String[]> FILE_TYPES =
+            List.of(
+                    new String[] {"csv", "text/csv", "Comma Separated Values"},
+                    new String[] {"tab", "text/tab-separated-values", "Tab-Delimited"},
+                    new String[] {"json", "application/json", "JSON"},
+                    new String[] {"pdf", "application/pdf", "Adobe PDF"},
+                    new String[] {"nc", "application/x-netcdf", "Network Common Data Form"});
+
+    private static final List<String> THEMES = List.of("ener", "tech", "envi");
+    private static final List<String> ACCESS_RIGHTS = List.of("public", "restricted", "non-public");
+    private static final String LICENSE_URI = "http://creativecommons.org/publicdomain/zero/1.0";
+
+    private final long seed;
+    private final int files;
+    private final int authors;
+    private final int keywords;
+    private final int metadataBlocks;
+    private final int dataCiteEntries;
+    private final String identifier;
+
+    private JsonObject datasetJson;
+    private JsonObject datasetORE;
+    private JsonArray datasetFileDetails;
+    private JsonObject datasetSchemaDotOrg;
+    private String dataCiteXml;
+
+    private SyntheticExportDataProvider(Builder builder) {
+        this.seed = builder.seed;
+        this.files = builder.files;
+        this.authors = builder.authors;
+        this.keywords = builder.keywords;
+        this.metadataBlocks = builder.metadataBlocks;
+        this.dataCiteEntries = builder.dataCiteEntries;
+        this.identifier = "SYN/" + Long.toString(Math.abs(seed % 2176782336L), 36).toUpperCase();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public synchronized JsonObject getDatasetJson() {
+        if (datasetJson == null) {
+            datasetJson = generateDatasetJson();
+        }
+        return datasetJson;
+    }
+
+    @Override
+    public synchronized JsonObject getDatasetORE() {
+        if (datasetORE == null) {
+            datasetORE = generateDatasetORE();
+        }
+        return datasetORE;
+    }
+
+    @Override
+    public synchronized JsonArray getDatasetFileDetails() {
+        if (datasetFileDetails == null) {
+            JsonArrayBuilder details = JSON.createArrayBuilder();
+            SplittableRandom random = new SplittableRandom(seed);
+            for (int i = 0; i < files; i++) {
+                details.add(dataFile(i, random));
+            }
+            datasetFileDetails = details.build();
+        }
+        return datasetFileDetails;
+    }
+
+    @Override
+    public synchronized JsonObject getDatasetSchemaDotOrg() {
+        if (datasetSchemaDotOrg == null) {
+            datasetSchemaDotOrg = generateSchemaDotOrg();
+        }
+        return datasetSchemaDotOrg;
+    }
+
+    @Override
+    public synchronized String getDataCiteXml() {
+        if (dataCiteXml == null) {
+            dataCiteXml = generateDataCiteXml();
+        }
+        return dataCiteXml;
+    }
+
+    private String persistentUrl() {
+        return "https://doi.org/10.5072/" + identifier;
+    }
+
+    private static long fileId(int index) {
+        return 1000L + index;
+    }
+
+    private static String fileName(int index) {
+        String extension = FILE_TYPES.get(index % FILE_TYPES.size())[0];
+        return String.format("file-%07d.%s", index + 1, extension);
+    }
+
+    // --- datasetJson / datasetFileDetails -----------------------------------------------------
+
+    private JsonObject generateDatasetJson() {
+        SplittableRandom random = new SplittableRandom(seed);
+        JsonArrayBuilder versionFiles = JSON.createArrayBuilder();
+        JsonArray details = getDatasetFileDetails();
+        for (int i = 0; i < files; i++) {
+            JsonObject dataFile = details.getJsonObject(i);
+            versionFiles.add(
+                    JSON.createObjectBuilder()
+                            .add("label", dataFile.getString("filename"))
+                            .add("restricted", dataFile.getBoolean("restricted"))
+                            .add("version", 1)
+                            .add("datasetVersionId", 1)
+                            .add("dataFile", dataFile));
+        }
+
+        JsonObjectBuilder blocks =
+                JSON.createObjectBuilder()
+                        .add("citation", citationBlock(random))
+                        .add("GDNDatasetMetadata", gdnBlock(random))
+                        .add("geospatial", geospatialBlock());
+        for (int b = 0; b < metadataBlocks; b++) {
+            blocks.add("synthetic" + (b + 1), syntheticBlock(b, random));
+        }
+
+        return JSON.createObjectBuilder()
+                .add("id", 1)
+                .add("identifier", identifier)
+                .add("persistentUrl", persistentUrl())
+                .add("protocol", "doi")
+                .add("authority", "10.5072")
+                .addNull("separator")
+                .add("publisher", "Root")
+                .add("publicationDate", "2025-01-01")
+                .add("storageIdentifier", "local://10.5072/" + identifier)
+                .addNull("datasetType")
+                .add(
+                        "datasetVersion",
+                        JSON.createObjectBuilder()
+                                .add("id", 1)
+                                .add("datasetId", 1)
+                                .add("datasetPersistentId", "doi:10.5072/" + identifier)
+                                .add("storageIdentifier", "local://10.5072/" + identifier)
+                                .add("versionNumber", 1)
+                                .add("versionMinorNumber", 0)
+                                .add("versionState", "RELEASED")
+                                .add("latestVersionPublishingState", "RELEASED")
+                                .add("lastUpdateTime", "2025-01-02T10:00:00Z")
+                                .add("releaseTime", "2025-01-02T10:00:00Z")
+                                .add("createTime", "2025-01-01T10:00:00Z")
+                                .add("publicationDate", "2025-01-01")
+                                .add("citationDate", "2025-01-01")
+                                .add(
+                                        "license",
+                                        JSON.createObjectBuilder()
+                                                .add("name", "CC0 1.0")
+                                                .add("uri", LICENSE_URI))
+                                .add("fileAccessRequest", true)
+                                .add("metadataBlocks", blocks)
+                                .add("files", versionFiles))
+                .build();
+    }
+
+    private JsonObject dataFile(int index, SplittableRandom random) {
+        String[] type = FILE_TYPES.get(index % FILE_TYPES.size());
+        String md5 = hex(random, 32);
+        JsonObjectBuilder file =
+                JSON.createObjectBuilder()
+                        .add("id", fileId(index))
+                        .add("persistentId", "")
+                        .add("filename", fileName(index))
+                        .add("contentType", type[1])
+                        .add("friendlyType", type[2])
+                        .add("filesize", 1 + random.nextLong(1_000_000_000L))
+                        .add("storageIdentifier", "local://" + hex(random, 12))
+                        .add("rootDataFileId", -1)
+                        .add("md5", md5)
+                        .add(
+                                "checksum",
+                                JSON.createObjectBuilder().add("type", "MD5").add("value", md5))
+                        .add("tabularData", false)
+                        .add("creationDate", "2025-01-01")
+                        .add("publicationDate", "2025-01-01")
+                        .add("fileAccessRequest", true)
+                        .add("restricted", random.nextInt(10) == 0);
+        if (index % 3 == 0) {
+            file.add("description", "Synthetic file " + (index + 1));
+        }
+        return file.build();
+    }
+
+    private JsonObject citationBlock(SplittableRandom random) {
+        JsonArrayBuilder authorValues = JSON.createArrayBuilder();
+        for (int a = 0; a < authors; a++) {
+            authorValues.add(
+                    JSON.createObjectBuilder()
+                            .add("authorName", primitive("authorName", "Author" + a + ", Test"))
+                            .add(
+                                    "authorAffiliation",
+                                    primitive(
+                                            "authorAffiliation",
+                                            "Organisation " + random.nextInt(100)))
+                            .add(
+                                    "authorIdentifier",
+                                    primitive(
+                                            "authorIdentifier",
+                                            String.format(
+                                                    "0000-0002-%04d-%04d",
+                                                    random.nextInt(10_000), a % 10_000))));
+        }
+        JsonArrayBuilder keywordValues = JSON.createArrayBuilder();
+        for (int k = 0; k < keywords; k++) {
+            keywordValues.add(
+                    JSON.createObjectBuilder()
+                            .add("keywordValue", primitive("keywordValue", "keyword " + k)));
+        }
+        JsonObjectBuilder contact =
+                JSON.createObjectBuilder()
+                        .add("datasetContactName", primitive("datasetContactName", "Contact, Test"))
+                        .add(
+                                "datasetContactEmail",
+                                primitive("datasetContactEmail", "contact@example.org"));
+        JsonObjectBuilder description =
+                JSON.createObjectBuilder()
+                        .add(
+                                "dsDescriptionValue",
+                                primitive(
+                                        "dsDescriptionValue",
+                                        "A synthetic dataset with " + files + " files."));
+        return block(
+                "citation",
+                "Citation Metadata",
+                JSON.createArrayBuilder()
+                        .add(primitive("title", "Synthetic dataset " + identifier))
+                        .add(compound("author", authorValues))
+                        .add(compound("datasetContact", JSON.createArrayBuilder().add(contact)))
+                        .add(compound("dsDescription", JSON.createArrayBuilder().add(description)))
+                        .add(compound("keyword", keywordValues))
+                        .add(
+                                vocabulary(
+                                        "subject",
+                                        JSON.createArrayBuilder()
+                                                .add("Earth and Environmental Sciences")))
+                        .add(primitive("depositor", "Admin, Dataverse"))
+                        .add(primitive("dateOfDeposit", "2025-01-01")));
+    }
+
+    private JsonObject gdnBlock(SplittableRandom random) {
+        JsonObjectBuilder hvd =
+                JSON.createObjectBuilder()
+                        .add(
+                                "GDNhvdApplicableLegislation",
+                                vocabulary("GDNhvdApplicableLegislation", "eu_2023_138"))
+                        .add(
+                                "GDNhvdCategory",
+                                vocabulary(
+                                        "GDNhvdCategory",
+                                        JSON.createArrayBuilder().add("energy_resources")));
+        String accessRights = ACCESS_RIGHTS.get(random.nextInt(ACCESS_RIGHTS.size()));
+        String theme = THEMES.get(random.nextInt(THEMES.size()));
+        return block(
+                "GDNDatasetMetadata",
+                "GDN dataset metadata",
+                JSON.createArrayBuilder()
+                        .add(vocabulary("GDNaccessRights", accessRights))
+                        .add(vocabulary("GDNtheme", JSON.createArrayBuilder().add(theme)))
+                        .add(field("GDNhvdCompliant", false, "compound").add("value", hvd)));
+    }
+
+    private static JsonObject geospatialBlock() {
+        JsonObjectBuilder coverage =
+                JSON.createObjectBuilder()
+                        .add("country", vocabulary("country", "Netherlands"))
+                        .add("state", primitive("state", "Utrecht"))
+                        .add("city", primitive("city", "Utrecht"));
+        return block(
+                "geospatial",
+                "Geospatial Metadata",
+                JSON.createArrayBuilder()
+                        .add(
+                                compound(
+                                        "geographicCoverage",
+                                        JSON.createArrayBuilder().add(coverage))));
+    }
+
+    /** An extra block with ten primitive fields, standing in for custom metadata blocks. */
+    private static JsonObject syntheticBlock(int index, SplittableRandom random) {
+        String name = "synthetic" + (index + 1);
+        JsonArrayBuilder fields = JSON.createArrayBuilder();
+        for (int f = 0; f < 10; f++) {
+            fields.add(primitive(name + "Field" + f, "value " + random.nextInt(1_000_000)));
+        }
+        return block(name, "Synthetic Metadata " + (index + 1), fields);
+    }
+
+    private static JsonObject block(String name, String displayName, JsonArrayBuilder fields) {
+        return JSON.createObjectBuilder()
+                .add("displayName", displayName)
+                .add("name", name)
+                .add("fields", fields)
+                .build();
+    }
+
+    private static JsonObjectBuilder primitive(String typeName, String value) {
+        return field(typeName, false, "primitive").add("value", value);
+    }
+
+    private static JsonObjectBuilder vocabulary(String typeName, String value) {
+        return field(typeName, false, "controlledVocabulary").add("value", value);
+    }
+
+    private static JsonObjectBuilder vocabulary(String typeName, JsonArrayBuilder values) {
+        return field(typeName, true, "controlledVocabulary").add("value", values);
+    }
+
+    private static JsonObjectBuilder compound(String typeName, JsonArrayBuilder values) {
+        return field(typeName, true, "compound").add("value", values);
+    }
+
+    private static JsonObjectBuilder field(String typeName, boolean multiple, String typeClass) {
+        return JSON.createObjectBuilder()
+                .add("typeName", typeName)
+                .add("multiple", multiple)
+                .add("typeClass", typeClass);
+    }
+
+    // --- datasetORE / schema.org ----------------------------------------------------------------
+
+    private JsonObject generateDatasetORE() {
+        JsonArrayBuilder aggregates = JSON.createArrayBuilder();
+        JsonArray details = getDatasetFileDetails();
+        for (int i = 0; i < files; i++) {
+            JsonObject file = details.getJsonObject(i);
+            aggregates.add(
+                    JSON.createObjectBuilder()
+                            .add("schema:description", file.getString("description", ""))
+                            .add("schema:name", file.getString("filename"))
+                            .add("dvcore:restricted", file.getBoolean("restricted"))
+                            .add("schema:version", 1)
+                            .add("dvcore:datasetVersionId", 1)
+                            .add(
+                                    "@id",
+                                    "https://dataverse.example.org/file.xhtml?fileId="
+                                            + fileId(i))
+                            .add("schema:sameAs", accessUrl(i))
+                            .add("@type", "ore:AggregatedResource")
+                            .add("schema:fileFormat", file.getString("contentType"))
+                            .add("dvcore:filesize", file.getJsonNumber("filesize"))
+                            .add("dvcore:storageIdentifier", file.getString("storageIdentifier"))
+                            .add("dvcore:checksum", file.getJsonObject("checksum")));
+        }
+        return JSON.createObjectBuilder()
+                .add("dcterms:modified", "2025-01-02")
+                .add("dcterms:creator", "Root")
+                .add("@type", "ore:ResourceMap")
+                .add("@id", "https://dataverse.example.org/api/datasets/export?exporter=OAI_ORE")
+                .add(
+                        "ore:describes",
+                        JSON.createObjectBuilder()
+                                .add("@id", persistentUrl())
+                                .add("title", "Synthetic dataset " + identifier)
+                                .add(
+                                        "schema:isPartOf",
+                                        JSON.createObjectBuilder()
+                                                .add("schema:name", "Synthetic Collection")
+                                                .add(
+                                                        "schema:description",
+                                                        "Collection of synthetic datasets")
+                                                .add("@id", "https://dataverse.example.org/"))
+                                .add("ore:aggregates", aggregates)
+                                .add("@type", JSON.createArrayBuilder().add("ore:Aggregation")))
+                .build();
+    }
+
+    private JsonObject generateSchemaDotOrg() {
+        JsonArrayBuilder creators = JSON.createArrayBuilder();
+        for (int a = 0; a < authors; a++) {
+            creators.add(
+                    JSON.createObjectBuilder()
+                            .add("@type", "Person")
+                            .add("givenName", "Test")
+                            .add("familyName", "Author" + a)
+                            .add("name", "Author" + a + ", Test"));
+        }
+        JsonArrayBuilder keywordValues = JSON.createArrayBuilder();
+        for (int k = 0; k < keywords; k++) {
+            keywordValues.add("keyword " + k);
+        }
+        JsonArrayBuilder distribution = JSON.createArrayBuilder();
+        JsonArray details = getDatasetFileDetails();
+        for (int i = 0; i < files; i++) {
+            JsonObject file = details.getJsonObject(i);
+            distribution.add(
+                    JSON.createObjectBuilder()
+                            .add("@type", "DataDownload")
+                            .add("name", file.getString("filename"))
+                            .add("encodingFormat", file.getString("contentType"))
+                            .add("contentSize", file.getJsonNumber("filesize"))
+                            .add("contentUrl", accessUrl(i)));
+        }
+        return JSON.createObjectBuilder()
+                .add("@context", "http://schema.org")
+                .add("@type", "Dataset")
+                .add("@id", persistentUrl())
+                .add("identifier", persistentUrl())
+                .add("name", "Synthetic dataset " + identifier)
+                .add("creator", creators)
+                .add("datePublished", "2025-01-01")
+                .add("keywords", keywordValues)
+                .add("license", LICENSE_URI)
+                .add("distribution", distribution)
+                .build();
+    }
+
+    private static String accessUrl(int index) {
+        return "https://dataverse.example.org/api/access/datafile/" + fileId(index);
+    }
+
+    // --- DataCite -----------------------------------------------------------------------------
+
+    private String generateDataCiteXml() {
+        SplittableRandom random = new SplittableRandom(seed);
+        StringBuilder xml =
+                new StringBuilder(
+                        """
+                        <?xml version="1.0" encoding="UTF-8"?>
+                        <resource xmlns="http://datacite.org/schema/kernel-4" \
+                        xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance">
+                        """);
+        xml.append("  <identifier identifierType=\"DOI\">10.5072/")
+                .append(identifier)
+                .append("</identifier>\n  <creators>\n");
+        for (int c = 0; c < dataCiteEntries; c++) {
+            xml.append("    <creator><creatorName>Author")
+                    .append(c)
+                    .append(", Test</creatorName><affiliation>Organisation ")
+                    .append(random.nextInt(100))
+                    .append("</affiliation></creator>\n");
+        }
+        xml.append("  </creators>\n  <titles><title>Synthetic dataset ")
+                .append(identifier)
+                .append("</title></titles>\n")
+                .append("  <publisher>Root</publisher>\n")
+                .append("  <publicationYear>2025</publicationYear>\n  <subjects>\n");
+        for (int s = 0; s < dataCiteEntries; s++) {
+            xml.append("    <subject>subject ").append(s).append("</subject>\n");
+        }
+        xml.append("  </subjects>\n  <relatedIdentifiers>\n");
+        for (int r = 0; r < dataCiteEntries; r++) {
+            xml.append(
+                            "    <relatedIdentifier relatedIdentifierType=\"DOI\""
+                                    + " relationType=\"References\">10.5072/REF")
+                    .append(r)
+                    .append("</relatedIdentifier>\n");
+        }
+        xml.append("  </relatedIdentifiers>\n")
+                .append("  <resourceType resourceTypeGeneral=\"Dataset\"/>\n")
+                .append("  <rightsList><rights rightsURI=\"")
+                .append(LICENSE_URI)
+                .append("\">CC0 1.0</rights></rightsList>\n")
+                .append("</resource>\n");
+        return xml.toString();
+    }
+
+    private static String hex(SplittableRandom random, int length) {
+        StringBuilder hex = new StringBuilder(length);
+        while (hex.length() < length) {
+            hex.append(Long.toHexString(random.nextLong() | Long.MIN_VALUE));
+        }
+        hex.setLength(length);
+        return hex.toString();
+    }
+
+    public static class Builder {
+        private long seed = 42L;
+        private int files = 100;
+        private int authors = 3;
+        private int keywords = 5;
+        private int metadataBlocks = 0;
+        private int dataCiteEntries = 3;
+
+        /** Seed of all generated values (default 42). */
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /** Number of files (default 100). */
+        public Builder files(int files) {
+            this.files = requireNonNegative(files, "files");
+            return this;
+        }
+
+        /** Number of authors (default 3). */
+        public Builder authors(int authors) {
+            this.authors = requireNonNegative(authors, "authors");
+            return this;
+        }
+
+        /** Number of keywords (default 5). */
+        public Builder keywords(int keywords) {
+            this.keywords = requireNonNegative(keywords, "keywords");
+            return this;
+        }
+
+        /** Number of extra metadata blocks besides citation, GDN and geospatial (default 0). */
+        public Builder metadataBlocks(int metadataBlocks) {
+            this.metadataBlocks = requireNonNegative(metadataBlocks, "metadataBlocks");
+            return this;
+        }
+
+        /** Number of DataCite creators, subjects and related identifiers (default 3). */
+        public Builder dataCiteEntries(int dataCiteEntries) {
+            this.dataCiteEntries = requireNonNegative(dataCiteEntries, "dataCiteEntries");
+            return this;
+        }
+
+        public SyntheticExportDataProvider build() {
+            return new SyntheticExportDataProvider(this);
+        }
+
+        private static int requireNonNegative(int value, String name) {
+            if (value < 0) {
+                throw new IllegalArgumentException(name + " must not be negative: " + value);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package io.gdcc.spi.export.util;
+
+import static io.gdcc.spi.export.util.TestUtil.export;
+import static io.gdcc.spi.export.util.TestUtil.readModel;
+import static io.gdcc.spi.export.util.TestUtil.useApNl30Config;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.gdcc.spi.export.dcat3.Dcat3ExporterTurtle;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.vocabulary.DCAT;
+import org.apache.jena.vocabulary.RDF;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(RootConfigProperty.class)
+class SyntheticExportDataProviderTest {
+
+    @Test
+    void same_settings_generate_same_sources() {
+        SyntheticExportDataProvider first =
+                SyntheticExportDataProvider.builder().seed(7).files(50).metadataBlocks(2).build();
+        SyntheticExportDataProvider second =
+                SyntheticExportDataProvider.builder().seed(7).files(50).metadataBlocks(2).build();
+
+        assertThat(first.getDatasetJson()).isEqualTo(second.getDatasetJson());
+        assertThat(first.getDatasetFileDetails()).isEqualTo(second.getDatasetFileDetails());
+        assertThat(first.getDatasetORE()).isEqualTo(second.getDatasetORE());
+        assertThat(first.getDatasetSchemaDotOrg()).isEqualTo(second.getDatasetSchemaDotOrg());
+        assertThat(first.getDataCiteXml()).isEqualTo(second.getDataCiteXml());
+    }
+
+    @Test
+    void generates_the_configured_counts() {
+        SyntheticExportDataProvider provider =
+                SyntheticExportDataProvider.builder()
+                        .files(25)
+                        .authors(4)
+                        .keywords(6)
+                        .metadataBlocks(3)
+                        .build();
+
+        assertThat(provider.getDatasetFileDetails()).hasSize(25);
+        assertThat(provider.getDatasetJson().getJsonObject("datasetVersion").getJsonArray("files"))
+                .hasSize(25);
+        assertThat(
+                        provider.getDatasetJson()
+                                .getJsonObject("datasetVersion")
+                                .getJsonObject("metadataBlocks"))
+                .containsKeys("citation", "synthetic1", "synthetic3");
+    }
+
+    @Test
+    void exports_one_distribution_per_file() throws Exception {
+        useApNl30Config();
+
+        byte[] turtle =
+                export(
+                        new Dcat3ExporterTurtle(),
+                        SyntheticExportDataProvider.builder().files(1000).build());
+
+        Model model = readModel(turtle, Lang.TURTLE);
+        assertThat(model.listResourcesWithProperty(RDF.type, DCAT.Distribution).toList())
+                .hasSize(1000);
+        assertThat(model.listResourcesWithProperty(RDF.type, DCAT.Dataset).toList()).hasSize(1);
+    }
+}
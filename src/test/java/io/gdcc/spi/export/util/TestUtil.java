@@ -1,11 +1,15 @@
 package io.gdcc.spi.export.util;
 
 import io.gdcc.spi.export.ExportDataProvider;
+import io.gdcc.spi.export.ExportException;
+import io.gdcc.spi.export.Exporter;
+import io.gdcc.spi.export.dcat3.config.loader.RootConfigLoader;
 import jakarta.json.Json;
 import jakarta.json.JsonArray;
 import jakarta.json.JsonObject;
 import jakarta.json.JsonReader;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
@@ -15,9 +19,12 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
 import java.util.List;
+import java.util.stream.Stream;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.riot.Lang;
@@ -26,6 +33,45 @@ import org.apache.jena.shacl.ValidationReport;
 
 public class TestUtil {
 
+    /** The DCAT-AP-NL 3.0 configuration most exporter tests run with. */
+    public static final Path AP_NL30_CONFIG = Path.of("src/test/resources/input/config_AP_NL30");
+
+    /** Point the exporters at a root configuration file; see {@link RootConfigProperty}. */
+    public static void useConfig(Path rootConfig) {
+        System.setProperty(RootConfigLoader.SYS_PROP, rootConfig.toAbsolutePath().toString());
+    }
+
+    /** Point the exporters at the unchanged {@link #AP_NL30_CONFIG}. */
+    public static void useApNl30Config() {
+        useConfig(AP_NL30_CONFIG.resolve("dcat-root.properties"));
+    }
+
+    /**
+     * Copy the {@link #AP_NL30_CONFIG} files into a directory, created when missing, and append
+     * the given lines to the copied root configuration.
+     *
+     * @return the copied root configuration file
+     */
+    public static Path copyConfig(Path dir, String rootProperties) throws IOException {
+        Files.createDirectories(dir);
+        try (Stream<Path> files = Files.list(AP_NL30_CONFIG)) {
+            for (Path file : files.toList()) {
+                Files.copy(file, dir.resolve(file.getFileName()));
+            }
+        }
+        Path root = dir.resolve("dcat-root.properties");
+        Files.writeString(root, "\n" + rootProperties, StandardOpenOption.APPEND);
+        return root;
+    }
+
+    /** Export one dataset and return the bytes written. */
+    public static byte[] export(Exporter exporter, ExportDataProvider provider)
+            throws ExportException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.exportDataset(provider, out);
+        return out.toByteArray();
+    }
+
     public static ExportDataProvider getExportDataProvider(String resourceDir) {
         return new ExportDataProvider() {
             @Override